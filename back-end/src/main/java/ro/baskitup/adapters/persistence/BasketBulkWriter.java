@@ -0,0 +1,63 @@
+package ro.baskitup.adapters.persistence;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plain JDBC batch inserts for bulk catalog loads, bypassing the persistence context. Ids and
+ * timestamps are assigned here; slugs must already be unique.
+ */
+@Repository
+public class BasketBulkWriter {
+  private static final String INSERT_BASKET = """
+      insert into gift_baskets
+        (id, slug, title, category, prompt, price, stock, description, hero_image, created_at, updated_at)
+      values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+      """;
+  private static final String INSERT_TAG = "insert into gift_basket_tags (basket_id, tag) values (?, ?)";
+
+  private final JdbcTemplate jdbc;
+
+  public BasketBulkWriter(JdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  public void insert(List<BasketEntity> baskets) {
+    OffsetDateTime now = OffsetDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+    List<Object[]> tags = new ArrayList<>();
+    for (BasketEntity basket : baskets) {
+      if (basket.getId() == null) {
+        basket.setId(UUID.randomUUID());
+      }
+      for (String tag : basket.getTags()) {
+        tags.add(new Object[] {basket.getId(), tag});
+      }
+    }
+    jdbc.batchUpdate(INSERT_BASKET, baskets, baskets.size(), (ps, basket) -> {
+      ps.setObject(1, basket.getId());
+      ps.setString(2, basket.getSlug());
+      ps.setString(3, basket.getTitle());
+      ps.setString(4, basket.getCategory());
+      ps.setString(5, basket.getPrompt());
+      ps.setBigDecimal(6, basket.getPrice());
+      ps.setInt(7, basket.getStock());
+      ps.setString(8, basket.getDescription());
+      ps.setString(9, basket.getHeroImage());
+      ps.setObject(10, now);
+      ps.setObject(11, now);
+    });
+    if (!tags.isEmpty()) {
+      jdbc.batchUpdate(INSERT_TAG, tags, tags.size(), (ps, pair) -> {
+        ps.setObject(1, pair[0]);
+        ps.setString(2, (String) pair[1]);
+      });
+    }
+  }
+}
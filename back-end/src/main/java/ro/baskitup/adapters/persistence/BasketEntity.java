@@ -7,11 +7,15 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Lob;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -19,14 +23,26 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+/**
+ * Updates write only the columns that changed: {@code stock} is decremented behind the entity's
+ * back by the stock ledger, and an edit that leaves it alone must not write back the value it read.
+ */
 @Entity
-@Table(name = "gift_baskets")
+@DynamicUpdate
+@Table(
+    name = "gift_baskets",
+    indexes = @Index(name = "idx_gift_baskets_created_id", columnList = "created_at, id"),
+    uniqueConstraints = @UniqueConstraint(name = BasketEntity.SLUG_CONSTRAINT, columnNames = "slug")
+)
 public class BasketEntity {
+  /** Name of the unique constraint on {@code slug}, so a collision can be told from other violations. */
+  public static final String SLUG_CONSTRAINT = "uk_gift_baskets_slug";
+
   @Id
   @GeneratedValue
   private UUID id;
 
-  @Column(nullable = false, unique = true, length = 160)
+  @Column(nullable = false, length = 160)
   private String slug;
 
   @Column(nullable = false, length = 160)
@@ -39,6 +55,7 @@ public class BasketEntity {
   private String prompt;
 
   @ElementCollection(fetch = FetchType.EAGER)
+  @BatchSize(size = 100)
   @CollectionTable(name = "gift_basket_tags", joinColumns = @JoinColumn(name = "basket_id"))
   @Column(name = "tag", length = 64)
   private List<String> tags = new ArrayList<>();
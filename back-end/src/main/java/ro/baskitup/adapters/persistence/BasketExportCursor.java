@@ -0,0 +1,105 @@
+package ro.baskitup.adapters.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Walks the whole catalog on a forward-only, read-only JDBC cursor. Baskets are joined with their
+ * tags and handed over one at a time, so nothing is kept beyond the row being assembled and the
+ * driver's fetch buffer.
+ */
+@Repository
+public class BasketExportCursor {
+  private static final String SELECT_ALL = """
+      select b.id, b.slug, b.title, b.category, b.prompt, b.price, b.stock, b.description,
+             b.hero_image, b.created_at, b.updated_at, t.tag
+      from gift_baskets b
+      left join gift_basket_tags t on t.basket_id = b.id
+      order by b.id
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final int fetchSize;
+
+  public BasketExportCursor(JdbcTemplate jdbc, @Value("${app.catalog.export-fetch-size:500}") int fetchSize) {
+    this.jdbc = jdbc;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Must run inside a (read-only) transaction: several drivers only stream with auto-commit off.
+   */
+  public void forEach(Consumer<BasketExportRow> sink) {
+    Assembler assembler = new Assembler(sink);
+    jdbc.query(connection -> {
+      PreparedStatement statement = connection.prepareStatement(
+          SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      statement.setFetchSize(fetchSize);
+      return statement;
+    }, assembler);
+    assembler.flush();
+  }
+
+  /**
+   * Folds the consecutive join rows of one basket into a single {@link BasketExportRow}.
+   */
+  private static final class Assembler implements RowCallbackHandler {
+    private final Consumer<BasketExportRow> sink;
+    private BasketExportRow current;
+    private List<String> tags;
+
+    Assembler(Consumer<BasketExportRow> sink) {
+      this.sink = sink;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+      UUID id = rs.getObject("id", UUID.class);
+      if (current == null || !current.id().equals(id)) {
+        flush();
+        tags = new ArrayList<>(4);
+        current = new BasketExportRow(
+            id,
+            rs.getString("slug"),
+            rs.getString("title"),
+            rs.getString("category"),
+            rs.getString("prompt"),
+            tags,
+            rs.getBigDecimal("price"),
+            rs.getInt("stock"),
+            rs.getString("description"),
+            rs.getString("hero_image"),
+            instant(rs.getTimestamp("created_at")),
+            instant(rs.getTimestamp("updated_at"))
+        );
+      }
+      String tag = rs.getString("tag");
+      if (tag != null) {
+        tags.add(tag);
+      }
+    }
+
+    void flush() {
+      if (current != null) {
+        sink.accept(current);
+        current = null;
+      }
+    }
+
+    private static Instant instant(Timestamp timestamp) {
+      return timestamp == null ? null : timestamp.toInstant();
+    }
+  }
+}
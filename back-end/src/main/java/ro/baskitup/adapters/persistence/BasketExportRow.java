@@ -0,0 +1,25 @@
+package ro.baskitup.adapters.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One exported basket with all of its columns and tags.
+ */
+public record BasketExportRow(
+    UUID id,
+    String slug,
+    String title,
+    String category,
+    String prompt,
+    List<String> tags,
+    BigDecimal price,
+    Integer stock,
+    String description,
+    String heroImage,
+    Instant createdAt,
+    Instant updatedAt
+) {
+}
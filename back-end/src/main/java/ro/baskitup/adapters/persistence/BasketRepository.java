@@ -1,7 +1,13 @@
 package ro.baskitup.adapters.persistence;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,4 +17,37 @@ public interface BasketRepository extends JpaRepository<BasketEntity, UUID> {
   Optional<BasketEntity> findBySlugIgnoreCaseAndIdNot(String slug, UUID id);
 
   boolean existsBySlugIgnoreCase(String slug);
+
+  /**
+   * {@code [id, slug]} of every basket whose slug is {@code base} or starts with {@code base-}.
+   */
+  @Query("select b.id, b.slug from BasketEntity b where b.slug = :base or b.slug like :prefix")
+  List<Object[]> findSlugFamily(@Param("base") String base, @Param("prefix") String prefix);
+
+  @Query("select b.slug from BasketEntity b where b.slug in :slugs")
+  List<String> findExistingSlugs(@Param("slugs") Collection<String> slugs);
+
+  @Query("""
+      select new ro.baskitup.adapters.persistence.BasketSummaryRow(
+          b.id, b.slug, b.title, b.category, b.prompt, b.price, b.stock, b.heroImage, b.createdAt, b.updatedAt)
+      from BasketEntity b
+      order by b.createdAt desc, b.id desc
+      """)
+  List<BasketSummaryRow> findNewestSummaries(Pageable page);
+
+  @Query("""
+      select new ro.baskitup.adapters.persistence.BasketSummaryRow(
+          b.id, b.slug, b.title, b.category, b.prompt, b.price, b.stock, b.heroImage, b.createdAt, b.updatedAt)
+      from BasketEntity b
+      where b.createdAt < :createdAt or (b.createdAt = :createdAt and b.id < :id)
+      order by b.createdAt desc, b.id desc
+      """)
+  List<BasketSummaryRow> findNewestSummariesAfter(
+      @Param("createdAt") Instant createdAt, @Param("id") UUID id, Pageable page);
+
+  /**
+   * {@code [basketId, tag]} pairs for all the given baskets, in one statement.
+   */
+  @Query("select b.id, t from BasketEntity b join b.tags t where b.id in :ids")
+  List<Object[]> findTagsByBasketIds(@Param("ids") Collection<UUID> ids);
 }
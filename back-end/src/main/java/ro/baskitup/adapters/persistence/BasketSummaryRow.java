@@ -0,0 +1,22 @@
+package ro.baskitup.adapters.persistence;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Listing columns of {@link BasketEntity}, without the description and tags.
+ */
+public record BasketSummaryRow(
+    UUID id,
+    String slug,
+    String title,
+    String category,
+    String prompt,
+    BigDecimal price,
+    Integer stock,
+    String heroImage,
+    Instant createdAt,
+    Instant updatedAt
+) {
+}
@@ -0,0 +1,107 @@
+package ro.baskitup.adapters.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Lob;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Claim on an {@code Idempotency-Key}: inserted as {@link Status#PENDING} before the request runs,
+ * then completed with the response that is replayed to retries, or deleted if the request fails.
+ * The id is assigned, so the entity says itself whether it is new: saving one that was never
+ * stored is always an insert, and a key claimed concurrently by someone else fails it rather than
+ * being overwritten.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_created", columnList = "created_at"))
+public class IdempotencyKeyEntity implements Persistable<String> {
+  /** Endpoint scope and a SHA-256 of caller and client key, e.g. {@code checkout:3f2a...}. */
+  @Id
+  @Column(length = 200)
+  private String id;
+
+  /** SHA-256 of the request body, to reject a key reused for a different request. */
+  @Column(nullable = false, length = 64)
+  private String fingerprint;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 16)
+  private Status status;
+
+  /** JSON of the response, once {@link Status#COMPLETED}. */
+  @Lob
+  private String response;
+
+  @Column(name = "created_at", nullable = false)
+  private Instant createdAt;
+
+  @Transient
+  private boolean stored;
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  public void setFingerprint(String fingerprint) {
+    this.fingerprint = fingerprint;
+  }
+
+  public Status getStatus() {
+    return status;
+  }
+
+  public void setStatus(Status status) {
+    this.status = status;
+  }
+
+  public String getResponse() {
+    return response;
+  }
+
+  public void setResponse(String response) {
+    this.response = response;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+
+  public void setCreatedAt(Instant createdAt) {
+    this.createdAt = createdAt;
+  }
+
+  @Override
+  public boolean isNew() {
+    return !stored;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markStored() {
+    stored = true;
+  }
+
+  public enum Status {
+    PENDING,
+    COMPLETED
+  }
+}
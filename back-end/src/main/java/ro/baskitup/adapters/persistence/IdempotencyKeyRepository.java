@@ -0,0 +1,54 @@
+package ro.baskitup.adapters.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKeyEntity, String> {
+  @Transactional
+  @Modifying
+  @Query("delete from IdempotencyKeyEntity k where k.createdAt < :cutoff")
+  int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+
+  /**
+   * Claims a key whose row was created at {@code seen} (expired, or abandoned while pending) for a
+   * new request; returns 0 if someone else changed the row first.
+   */
+  @Transactional
+  @Modifying
+  @Query("""
+      update IdempotencyKeyEntity k
+      set k.fingerprint = :fingerprint, k.response = null, k.createdAt = :createdAt,
+          k.status = ro.baskitup.adapters.persistence.IdempotencyKeyEntity.Status.PENDING
+      where k.id = :id and k.createdAt = :seen
+      """)
+  int takeOver(
+      @Param("id") String id,
+      @Param("fingerprint") String fingerprint,
+      @Param("createdAt") Instant createdAt,
+      @Param("seen") Instant seen);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update IdempotencyKeyEntity k
+      set k.response = :response,
+          k.status = ro.baskitup.adapters.persistence.IdempotencyKeyEntity.Status.COMPLETED
+      where k.id = :id and k.createdAt = :createdAt
+          and k.status = ro.baskitup.adapters.persistence.IdempotencyKeyEntity.Status.PENDING
+      """)
+  int complete(@Param("id") String id, @Param("createdAt") Instant createdAt, @Param("response") String response);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      delete from IdempotencyKeyEntity k
+      where k.id = :id and k.createdAt = :createdAt
+          and k.status = ro.baskitup.adapters.persistence.IdempotencyKeyEntity.Status.PENDING
+      """)
+  int release(@Param("id") String id, @Param("createdAt") Instant createdAt);
+}
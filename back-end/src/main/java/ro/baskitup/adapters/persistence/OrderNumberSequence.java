@@ -0,0 +1,55 @@
+package ro.baskitup.adapters.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Database sequence behind order numbers. Its increment is the block size, so each
+ * {@link #nextBlock()} reserves {@code blockSize} consecutive numbers in a single round trip.
+ * The increment is fixed when the sequence is created: an instance configured with a different
+ * block size refuses to start, since changing it on a live sequence would hand out blocks that
+ * overlap the ones other instances already hold.
+ */
+@Repository
+public class OrderNumberSequence {
+  private static final long FIRST_NUMBER = 100_000;
+  private static final String INCREMENT = """
+      select increment from information_schema.sequences
+      where lower(sequence_name) = 'order_numbers' and sequence_schema = current_schema()
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final int blockSize;
+
+  public OrderNumberSequence(JdbcTemplate jdbc, @Value("${app.orders.number-block-size:100}") int blockSize) {
+    if (blockSize < 1) {
+      throw new IllegalArgumentException("app.orders.number-block-size must be positive");
+    }
+    this.jdbc = jdbc;
+    this.blockSize = blockSize;
+    jdbc.execute("create sequence if not exists order_numbers start with " + FIRST_NUMBER
+        + " increment by " + blockSize);
+    String increment = jdbc.queryForObject(INCREMENT, String.class);
+    if (increment == null || Long.parseLong(increment.trim()) != blockSize) {
+      throw new IllegalStateException("app.orders.number-block-size is " + blockSize
+          + " but the order_numbers sequence increments by " + increment
+          + "; migrate the sequence explicitly instead of changing the block size");
+    }
+  }
+
+  public int blockSize() {
+    return blockSize;
+  }
+
+  /**
+   * First number of a freshly reserved block.
+   */
+  public long nextBlock() {
+    Long start = jdbc.queryForObject("select nextval('order_numbers')", Long.class);
+    if (start == null) {
+      throw new IllegalStateException("order_numbers sequence returned no value");
+    }
+    return start;
+  }
+}
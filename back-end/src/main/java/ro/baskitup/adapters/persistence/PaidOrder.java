@@ -0,0 +1,12 @@
+package ro.baskitup.adapters.persistence;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The basket lines of a paid order, without the rest of the order.
+ */
+public record PaidOrder(UUID orderId, Instant paidAt, List<Line> lines) {
+  public record Line(UUID basketId, int quantity) {}
+}
@@ -0,0 +1,125 @@
+package ro.baskitup.adapters.persistence;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Reads paid orders as {@link PaidOrder} lines straight from JDBC, for the purchase-driven
+ * recommendations. The full history is walked on a forward-only cursor, one order at a time.
+ */
+@Repository
+public class PaidOrderCursor {
+  private static final String SELECT_PAID = """
+      select o.id, o.created_at, i.basket_id, i.quantity
+      from orders o
+      join order_items i on i.order_id = o.id
+      where o.status in ('PAID', 'FULFILLED')
+      order by o.id
+      """;
+  private static final String SELECT_ONE = """
+      select o.id, o.created_at, i.basket_id, i.quantity
+      from orders o
+      join order_items i on i.order_id = o.id
+      where o.id = ?
+      """;
+  private static final String SELECT_BY_CUSTOMER = """
+      select o.id, o.created_at, i.basket_id, i.quantity
+      from orders o
+      join order_items i on i.order_id = o.id
+      where o.id in (
+        select c.id from orders c
+        where c.status <> 'CANCELED' and (c.user_key in (?, ?) or lower(c.customer_email) = ?)
+        order by c.created_at desc
+        limit ?
+      )
+      order by o.id
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final int fetchSize;
+
+  public PaidOrderCursor(JdbcTemplate jdbc, @Value("${app.catalog.export-fetch-size:500}") int fetchSize) {
+    this.jdbc = jdbc;
+    this.fetchSize = fetchSize;
+  }
+
+  /**
+   * Must run inside a (read-only) transaction, see {@link BasketExportCursor#forEach}.
+   */
+  public void forEach(Consumer<PaidOrder> sink) {
+    Assembler assembler = new Assembler(sink);
+    jdbc.query(connection -> {
+      PreparedStatement statement = connection.prepareStatement(
+          SELECT_PAID, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+      statement.setFetchSize(fetchSize);
+      return statement;
+    }, assembler);
+    assembler.flush();
+  }
+
+  public Optional<PaidOrder> find(UUID orderId) {
+    List<PaidOrder> found = new ArrayList<>(1);
+    Assembler assembler = new Assembler(found::add);
+    jdbc.query(SELECT_ONE, assembler, orderId);
+    assembler.flush();
+    return found.stream().findFirst();
+  }
+
+  /**
+   * The customer's most recent orders that were not canceled, paid or not yet, matched by user
+   * key (id or email, as the storefront sends it) or by the checkout email.
+   */
+  public List<PaidOrder> findRecentByCustomer(UUID userId, String email, int limit) {
+    String folded = email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    List<PaidOrder> found = new ArrayList<>();
+    Assembler assembler = new Assembler(found::add);
+    jdbc.query(SELECT_BY_CUSTOMER, assembler, userId.toString(), folded, folded, limit);
+    assembler.flush();
+    return found;
+  }
+
+  private static final class Assembler implements RowCallbackHandler {
+    private final Consumer<PaidOrder> sink;
+    private UUID orderId;
+    private Instant paidAt;
+    private List<PaidOrder.Line> lines;
+
+    Assembler(Consumer<PaidOrder> sink) {
+      this.sink = sink;
+    }
+
+    @Override
+    public void processRow(ResultSet rs) throws SQLException {
+      UUID id = rs.getObject("id", UUID.class);
+      if (!id.equals(orderId)) {
+        flush();
+        orderId = id;
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        paidAt = createdAt == null ? null : createdAt.toInstant();
+        lines = new ArrayList<>(4);
+      }
+      lines.add(new PaidOrder.Line(rs.getObject("basket_id", UUID.class), rs.getInt("quantity")));
+    }
+
+    void flush() {
+      if (orderId != null) {
+        sink.accept(new PaidOrder(orderId, paidAt, List.copyOf(lines)));
+        orderId = null;
+      }
+    }
+  }
+}
@@ -0,0 +1,169 @@
+package ro.baskitup.adapters.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import ro.baskitup.domain.model.Money;
+import ro.baskitup.domain.model.PromotionScope;
+import ro.baskitup.domain.model.PromotionType;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "promotions")
+public class PromotionEntity {
+  @Id
+  @GeneratedValue
+  private UUID id;
+
+  @Column(nullable = false, length = 160)
+  private String label;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 32)
+  private PromotionType type;
+
+  @Enumerated(EnumType.STRING)
+  @Column(nullable = false, length = 32)
+  private PromotionScope scope;
+
+  /** Basket id, category slug or folded tag, depending on the scope; empty for the whole catalog. */
+  @Column(length = 160)
+  private String target;
+
+  @Column(precision = 5, scale = 2)
+  private BigDecimal percent;
+
+  @Column(precision = 10, scale = 2)
+  private Money amount;
+
+  @Column(name = "buy_quantity")
+  private Integer buyQuantity;
+
+  @Column(name = "free_quantity")
+  private Integer freeQuantity;
+
+  @Column(nullable = false)
+  private boolean active = true;
+
+  @Column(name = "starts_at")
+  private Instant startsAt;
+
+  @Column(name = "ends_at")
+  private Instant endsAt;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  private Instant createdAt;
+
+  @PrePersist
+  void onCreate() {
+    createdAt = Instant.now();
+  }
+
+  public UUID getId() {
+    return id;
+  }
+
+  public void setId(UUID id) {
+    this.id = id;
+  }
+
+  public String getLabel() {
+    return label;
+  }
+
+  public void setLabel(String label) {
+    this.label = label;
+  }
+
+  public PromotionType getType() {
+    return type;
+  }
+
+  public void setType(PromotionType type) {
+    this.type = type;
+  }
+
+  public PromotionScope getScope() {
+    return scope;
+  }
+
+  public void setScope(PromotionScope scope) {
+    this.scope = scope;
+  }
+
+  public String getTarget() {
+    return target;
+  }
+
+  public void setTarget(String target) {
+    this.target = target;
+  }
+
+  public BigDecimal getPercent() {
+    return percent;
+  }
+
+  public void setPercent(BigDecimal percent) {
+    this.percent = percent;
+  }
+
+  public Money getAmount() {
+    return amount;
+  }
+
+  public void setAmount(Money amount) {
+    this.amount = amount;
+  }
+
+  public Integer getBuyQuantity() {
+    return buyQuantity;
+  }
+
+  public void setBuyQuantity(Integer buyQuantity) {
+    this.buyQuantity = buyQuantity;
+  }
+
+  public Integer getFreeQuantity() {
+    return freeQuantity;
+  }
+
+  public void setFreeQuantity(Integer freeQuantity) {
+    this.freeQuantity = freeQuantity;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public void setActive(boolean active) {
+    this.active = active;
+  }
+
+  public Instant getStartsAt() {
+    return startsAt;
+  }
+
+  public void setStartsAt(Instant startsAt) {
+    this.startsAt = startsAt;
+  }
+
+  public Instant getEndsAt() {
+    return endsAt;
+  }
+
+  public void setEndsAt(Instant endsAt) {
+    this.endsAt = endsAt;
+  }
+
+  public Instant getCreatedAt() {
+    return createdAt;
+  }
+}
@@ -0,0 +1,12 @@
+package ro.baskitup.adapters.persistence;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface PromotionRepository extends JpaRepository<PromotionEntity, UUID> {
+  List<PromotionEntity> findByActiveTrue();
+
+  List<PromotionEntity> findAllByOrderByCreatedAtDesc();
+}
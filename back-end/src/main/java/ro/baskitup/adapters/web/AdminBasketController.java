@@ -1,23 +1,38 @@
 package ro.baskitup.adapters.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ro.baskitup.application.services.BasketExportService;
+import ro.baskitup.application.services.BasketImportService;
 import ro.baskitup.application.services.BasketService;
 import ro.baskitup.domain.view.BasketDetailView;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
@@ -25,12 +40,27 @@ import java.util.UUID;
 @RestController
 @RequestMapping("/api/admin/baskets")
 @PreAuthorize("hasAnyRole('ADMIN','CONTENT_MANAGER')")
+@Validated
 public class AdminBasketController {
 
   private final BasketService basketService;
+  private final BasketImportService importService;
+  private final BasketExportService exportService;
+  private final ObjectMapper objectMapper;
+  private final Validator validator;
 
-  public AdminBasketController(BasketService basketService) {
+  public AdminBasketController(
+      BasketService basketService,
+      BasketImportService importService,
+      BasketExportService exportService,
+      ObjectMapper objectMapper,
+      Validator validator
+  ) {
     this.basketService = basketService;
+    this.importService = importService;
+    this.exportService = exportService;
+    this.objectMapper = objectMapper;
+    this.validator = validator;
   }
 
   @PostMapping
@@ -39,6 +69,39 @@ public class AdminBasketController {
     return ResponseEntity.ok(created);
   }
 
+  /**
+   * Bulk import from an NDJSON ({@code application/x-ndjson}) or CSV ({@code text/csv}) body. The
+   * body is read as a stream; invalid rows are reported with their line number and skipped.
+   */
+  @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+  public BasketImportService.ImportReport importBaskets(
+      @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+      InputStream body
+  ) throws IOException {
+    try (body) {
+      return importService.importAll(BasketImportReader.open(contentType, body, objectMapper, validator));
+    }
+  }
+
+  /**
+   * Streams the whole catalog as NDJSON (default) or CSV, row by row from a database cursor.
+   */
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export(
+      @RequestParam(defaultValue = "ndjson") @Pattern(regexp = "ndjson|csv") String format
+  ) {
+    boolean csv = "csv".equals(format);
+    StreamingResponseBody body = out -> {
+      BasketExportWriter writer = BasketExportWriter.of(format, new BufferedOutputStream(out, 64 * 1024), objectMapper);
+      exportService.export(writer);
+      writer.finish();
+    };
+    return ResponseEntity.ok()
+        .contentType(csv ? new MediaType("text", "csv") : MediaType.parseMediaType("application/x-ndjson"))
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"baskets." + format + "\"")
+        .body(body);
+  }
+
   @PutMapping("/{id}")
   public BasketDetailView update(@PathVariable UUID id, @Valid @RequestBody BasketDto request) {
     return basketService.update(id, request.toRequest());
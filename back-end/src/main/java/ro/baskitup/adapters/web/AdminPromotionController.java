@@ -0,0 +1,82 @@
+package ro.baskitup.adapters.web;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ro.baskitup.application.services.PromotionService;
+import ro.baskitup.domain.model.PromotionScope;
+import ro.baskitup.domain.model.PromotionType;
+import ro.baskitup.domain.view.PromotionView;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/admin/promotions")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminPromotionController {
+  private final PromotionService promotions;
+
+  public AdminPromotionController(PromotionService promotions) {
+    this.promotions = promotions;
+  }
+
+  @GetMapping
+  public List<PromotionView> list() {
+    return promotions.list();
+  }
+
+  @PostMapping
+  public PromotionView create(@Valid @RequestBody PromotionDto request) {
+    return promotions.create(request.toRequest());
+  }
+
+  @DeleteMapping("/{id}")
+  public ResponseEntity<Void> delete(@PathVariable UUID id) {
+    promotions.delete(id);
+    return ResponseEntity.noContent().build();
+  }
+
+  public record PromotionDto(
+      @NotBlank @Size(max = 160) String label,
+      @NotNull PromotionType type,
+      @NotNull PromotionScope scope,
+      @Size(max = 160) String target,
+      BigDecimal percent,
+      BigDecimal amount,
+      @Min(1) Integer buyQuantity,
+      @Min(1) Integer freeQuantity,
+      Boolean active,
+      Instant startsAt,
+      Instant endsAt
+  ) {
+    PromotionService.PromotionRequest toRequest() {
+      return new PromotionService.PromotionRequest(
+          label,
+          type,
+          scope,
+          target,
+          percent,
+          amount,
+          buyQuantity,
+          freeQuantity,
+          active,
+          startsAt,
+          endsAt
+      );
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package ro.baskitup.adapters.web;
+
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ro.baskitup.application.services.RecommendationEngine;
+import ro.baskitup.domain.view.StrategyStatsView;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/recommendations")
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminRecommendationController {
+  private final RecommendationEngine engine;
+
+  public AdminRecommendationController(RecommendationEngine engine) {
+    this.engine = engine;
+  }
+
+  /**
+   * Per-strategy latency histograms, timeouts and failures, for tuning the strategy budgets.
+   */
+  @GetMapping("/stats")
+  public List<StrategyStatsView> stats() {
+    return engine.stats();
+  }
+}
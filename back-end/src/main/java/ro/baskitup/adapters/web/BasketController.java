@@ -1,14 +1,25 @@
 package ro.baskitup.adapters.web;
 
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ro.baskitup.application.catalog.BasketSearchEngine;
+import ro.baskitup.application.catalog.BasketSuggester;
+import ro.baskitup.application.catalog.SimilarBaskets;
+import ro.baskitup.application.strategy.CoPurchaseRecommendations;
 import ro.baskitup.application.services.BasketService;
 import ro.baskitup.domain.view.BasketDetailView;
+import ro.baskitup.domain.view.BasketPageView;
+import ro.baskitup.domain.view.BasketSearchHit;
 import ro.baskitup.domain.view.BasketSummaryView;
 
 import java.util.List;
@@ -19,21 +30,92 @@ import java.util.List;
 public class BasketController {
 
   private final BasketService basketService;
+  private final BasketSearchEngine searchEngine;
+  private final BasketSuggester suggester;
+  private final CatalogETags etags;
+  private final CatalogResponseCache responses;
+  private final CoPurchaseRecommendations coPurchases;
+  private final SimilarBaskets similarBaskets;
 
-  public BasketController(BasketService basketService) {
+  public BasketController(
+      BasketService basketService,
+      BasketSearchEngine searchEngine,
+      BasketSuggester suggester,
+      CatalogETags etags,
+      CatalogResponseCache responses,
+      CoPurchaseRecommendations coPurchases,
+      SimilarBaskets similarBaskets
+  ) {
     this.basketService = basketService;
+    this.searchEngine = searchEngine;
+    this.suggester = suggester;
+    this.etags = etags;
+    this.responses = responses;
+    this.coPurchases = coPurchases;
+    this.similarBaskets = similarBaskets;
   }
 
+  /**
+   * Returns the pre-encoded {@code List<BasketSummaryView>} JSON.
+   */
   @GetMapping
-  public List<BasketSummaryView> list(
+  public ResponseEntity<byte[]> list(
+      @RequestParam(value = "category", required = false) String category,
+      @RequestParam(value = "search", required = false) @Size(max = 120) String search,
+      WebRequest request
+  ) {
+    return responses.respond(request, new ListKey(category, search), null, () -> basketService.list(category, search));
+  }
+
+  @GetMapping("/page")
+  public BasketPageView page(
       @RequestParam(value = "category", required = false) String category,
-      @RequestParam(value = "search", required = false) @Size(max = 120) String search
+      @RequestParam(value = "search", required = false) @Size(max = 120) String search,
+      @RequestParam(value = "tag", required = false) @Size(max = 64) String tag,
+      @RequestParam(value = "price", required = false) @Size(max = 16) String priceBand,
+      @RequestParam(value = "cursor", required = false) @Size(max = 128) String cursor,
+      @RequestParam(value = "limit", defaultValue = "24") @Min(1) @Max(100) int limit
+  ) {
+    return basketService.page(category, search, tag, priceBand, cursor, limit);
+  }
+
+  @GetMapping("/search")
+  public List<BasketSearchHit> search(
+      @RequestParam("q") @NotBlank @Size(max = 120) String query,
+      @RequestParam(value = "limit", defaultValue = "20") @Min(1) @Max(50) int limit
+  ) {
+    return searchEngine.search(query, limit);
+  }
+
+  @GetMapping("/suggest")
+  public List<String> suggest(
+      @RequestParam("q") @Size(max = 64) String prefix,
+      @RequestParam(value = "limit", defaultValue = "8") @Min(1) @Max(BasketSuggester.MAX_SUGGESTIONS) int limit
+  ) {
+    return suggester.suggest(prefix, limit);
+  }
+
+  @GetMapping("/{slug}/related")
+  public List<BasketSummaryView> related(
+      @PathVariable String slug,
+      @RequestParam(value = "limit", defaultValue = "8") @Min(1) @Max(CoPurchaseRecommendations.MAX_RELATED) int limit
   ) {
-    return basketService.list(category, search);
+    return coPurchases.related(slug, limit);
+  }
+
+  @GetMapping("/{slug}/similar")
+  public List<BasketSummaryView> similar(
+      @PathVariable String slug,
+      @RequestParam(value = "limit", defaultValue = "8") @Min(1) @Max(SimilarBaskets.MAX_SIMILAR) int limit
+  ) {
+    return similarBaskets.similar(slug, limit);
   }
 
   @GetMapping("/{slug}")
-  public BasketDetailView bySlug(@PathVariable String slug) {
-    return basketService.findBySlug(slug);
+  public ResponseEntity<BasketDetailView> bySlug(@PathVariable String slug, WebRequest request) {
+    return etags.respond(request, () -> basketService.findBySlug(slug));
   }
+
+  /** Response cache key of {@link #list}; a record, so no parameter value can spill into another. */
+  private record ListKey(String category, String search) {}
 }
@@ -0,0 +1,117 @@
+package ro.baskitup.adapters.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ro.baskitup.adapters.persistence.BasketExportRow;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Serializes exported baskets one at a time. The formats match what {@link BasketImportReader}
+ * accepts, so an export can be imported back.
+ */
+abstract class BasketExportWriter implements Consumer<BasketExportRow> {
+
+  static BasketExportWriter of(String format, OutputStream out, ObjectMapper json) {
+    return "csv".equals(format) ? new Csv(out) : new Ndjson(out, json);
+  }
+
+  protected abstract void write(BasketExportRow row) throws IOException;
+
+  abstract void finish() throws IOException;
+
+  @Override
+  public void accept(BasketExportRow row) {
+    try {
+      write(row);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static final class Ndjson extends BasketExportWriter {
+    private final OutputStream out;
+    private final ObjectMapper json;
+
+    Ndjson(OutputStream out, ObjectMapper json) {
+      this.out = out;
+      this.json = json;
+    }
+
+    @Override
+    protected void write(BasketExportRow row) throws IOException {
+      out.write(json.writeValueAsBytes(row));
+      out.write('\n');
+    }
+
+    @Override
+    void finish() throws IOException {
+      out.flush();
+    }
+  }
+
+  private static final class Csv extends BasketExportWriter {
+    private static final String HEADER =
+        "id,slug,title,category,prompt,tags,price,stock,description,heroImage,createdAt,updatedAt\r\n";
+
+    private final Writer out;
+    private boolean started;
+
+    Csv(OutputStream out) {
+      this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    protected void write(BasketExportRow row) throws IOException {
+      if (!started) {
+        out.write(HEADER);
+        started = true;
+      }
+      out.write(row.id().toString());
+      field(row.slug());
+      field(row.title());
+      field(row.category());
+      field(row.prompt());
+      field(CsvTags.join(row.tags()));
+      field(row.price() == null ? null : row.price().toPlainString());
+      field(row.stock() == null ? null : row.stock().toString());
+      field(row.description());
+      field(row.heroImage());
+      field(row.createdAt() == null ? null : row.createdAt().toString());
+      field(row.updatedAt() == null ? null : row.updatedAt().toString());
+      out.write("\r\n");
+    }
+
+    @Override
+    void finish() throws IOException {
+      if (!started) {
+        out.write(HEADER);
+      }
+      out.flush();
+    }
+
+    private void field(String value) throws IOException {
+      out.write(',');
+      if (value == null) {
+        return;
+      }
+      boolean quote = false;
+      for (int i = 0; i < value.length() && !quote; i++) {
+        char c = value.charAt(i);
+        quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+      }
+      if (!quote) {
+        out.write(value);
+        return;
+      }
+      out.write('"');
+      out.write(value.replace("\"", "\"\""));
+      out.write('"');
+    }
+  }
+}
@@ -0,0 +1,324 @@
+package ro.baskitup.adapters.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import ro.baskitup.adapters.web.AdminBasketController.BasketDto;
+import ro.baskitup.application.services.BasketImportService.ImportRow;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reads an upload one record at a time (NDJSON line or CSV record) and validates it against the
+ * {@link BasketDto} constraints. Nothing beyond the current record is buffered, and a record longer
+ * than {@value #MAX_RECORD_LENGTH} characters is skipped and reported instead of being buffered.
+ */
+abstract class BasketImportReader implements Iterator<ImportRow> {
+  static final int MAX_RECORD_LENGTH = 64 * 1024;
+  private static final int MAX_ERROR_LENGTH = 300;
+  private static final String TOO_LONG = "Rândul depășește " + MAX_RECORD_LENGTH + " de caractere";
+
+  private final Validator validator;
+  private ImportRow next;
+  private boolean done;
+
+  BasketImportReader(Validator validator) {
+    this.validator = validator;
+  }
+
+  static BasketImportReader open(String contentType, InputStream body, ObjectMapper json, Validator validator) {
+    Reader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+    if (contentType != null && contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")) {
+      return new Csv(reader, validator);
+    }
+    return new Ndjson((BufferedReader) reader, json, validator);
+  }
+
+  /**
+   * Next row, or {@code null} at the end of the input.
+   */
+  protected abstract ImportRow read() throws IOException;
+
+  @Override
+  public boolean hasNext() {
+    if (next == null && !done) {
+      try {
+        next = read();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+      done = next == null;
+    }
+    return next != null;
+  }
+
+  @Override
+  public ImportRow next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    ImportRow row = next;
+    next = null;
+    return row;
+  }
+
+  protected ImportRow validated(long line, BasketDto dto) {
+    Set<ConstraintViolation<BasketDto>> violations = validator.validate(dto);
+    if (violations.isEmpty()) {
+      return ImportRow.valid(line, dto.toRequest());
+    }
+    String message = violations.stream()
+        .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+        .collect(Collectors.joining("; "));
+    return ImportRow.invalid(line, message);
+  }
+
+  protected static String truncate(String message) {
+    if (message == null) {
+      return "Rând invalid";
+    }
+    return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+  }
+
+  private static final class Ndjson extends BasketImportReader {
+    private final BufferedReader reader;
+    private final ObjectMapper json;
+    private long line;
+    private boolean overflowed;
+
+    Ndjson(BufferedReader reader, ObjectMapper json, Validator validator) {
+      super(validator);
+      this.reader = reader;
+      this.json = json;
+    }
+
+    @Override
+    protected ImportRow read() throws IOException {
+      String text;
+      do {
+        text = readLine();
+        line++;
+        if (text == null) {
+          return null;
+        }
+        if (overflowed) {
+          return ImportRow.invalid(line, TOO_LONG);
+        }
+      } while (text.isBlank());
+      try {
+        return validated(line, json.readValue(text, BasketDto.class));
+      } catch (JsonProcessingException ex) {
+        return ImportRow.invalid(line, truncate("JSON invalid: " + ex.getOriginalMessage()));
+      }
+    }
+
+    /**
+     * Like {@link BufferedReader#readLine}, but a line over the limit is read to its end without
+     * being kept and comes back empty with {@code overflowed} set.
+     */
+    private String readLine() throws IOException {
+      overflowed = false;
+      StringBuilder text = new StringBuilder();
+      int c = reader.read();
+      if (c == -1) {
+        return null;
+      }
+      while (c != -1 && c != '\n') {
+        if (text.length() >= MAX_RECORD_LENGTH) {
+          overflowed = true;
+          text.setLength(0);
+        }
+        if (!overflowed) {
+          text.append((char) c);
+        }
+        c = reader.read();
+      }
+      int end = text.length();
+      return end > 0 && text.charAt(end - 1) == '\r' ? text.substring(0, end - 1) : text.toString();
+    }
+  }
+
+  /**
+   * RFC 4180 CSV with a header row naming the {@link BasketDto} fields; tags are separated by
+   * {@code |}, a backslash escaping a {@code |} or {@code \} inside one (see {@link CsvTags}).
+   * Quoted fields may span lines.
+   */
+  private static final class Csv extends BasketImportReader {
+    private static final List<String> COLUMNS = List.of(
+        "title", "slug", "category", "prompt", "tags", "price", "stock", "description", "heroImage");
+
+    private final Reader reader;
+    private Map<String, Integer> header;
+    private boolean rejected;
+    private boolean overflowed;
+    private long line = 1;
+    private int pending = -2;
+
+    Csv(Reader reader, Validator validator) {
+      super(validator);
+      this.reader = reader;
+    }
+
+    @Override
+    protected ImportRow read() throws IOException {
+      if (rejected) {
+        return null;
+      }
+      if (header == null) {
+        List<String> names = record();
+        if (names == null) {
+          return null;
+        }
+        if (overflowed) {
+          rejected = true;
+          return ImportRow.invalid(1, TOO_LONG);
+        }
+        header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+          header.put(names.get(i).trim(), i);
+        }
+        if (!header.keySet().containsAll(List.of("title", "category", "prompt", "price"))) {
+          rejected = true;
+          return ImportRow.invalid(1, "Antetul CSV trebuie să conțină coloanele " + String.join(",", COLUMNS));
+        }
+      }
+      long start;
+      List<String> fields;
+      do {
+        start = line;
+        fields = record();
+        if (fields == null) {
+          return null;
+        }
+        if (overflowed) {
+          return ImportRow.invalid(start, TOO_LONG);
+        }
+      } while (fields.size() == 1 && fields.get(0).isBlank());
+      try {
+        String tags = field(fields, "tags");
+        String stock = field(fields, "stock");
+        BasketDto dto = new BasketDto(
+            field(fields, "title"),
+            field(fields, "slug"),
+            field(fields, "category"),
+            field(fields, "prompt"),
+            tags == null || tags.isBlank() ? List.of() : CsvTags.split(tags),
+            new BigDecimal(field(fields, "price").trim()),
+            stock == null || stock.isBlank() ? 0 : Integer.parseInt(stock.trim()),
+            field(fields, "description"),
+            field(fields, "heroImage")
+        );
+        return validated(start, dto);
+      } catch (RuntimeException ex) {
+        return ImportRow.invalid(start, truncate("CSV invalid: " + ex.getMessage()));
+      }
+    }
+
+    private String field(List<String> fields, String name) {
+      Integer index = header.get(name);
+      if (index == null || index >= fields.size()) {
+        return null;
+      }
+      String value = fields.get(index);
+      return value.isEmpty() ? null : value;
+    }
+
+    private int nextChar() throws IOException {
+      if (pending != -2) {
+        int c = pending;
+        pending = -2;
+        return c;
+      }
+      return reader.read();
+    }
+
+    /**
+     * One CSV record, or {@code null} at the end of the input. A record over the limit (such as
+     * everything after an unterminated quote) is parsed to its end without being kept, and comes
+     * back empty with {@code overflowed} set.
+     */
+    private List<String> record() throws IOException {
+      int c = nextChar();
+      if (c == -1) {
+        return null;
+      }
+      overflowed = false;
+      List<String> fields = new ArrayList<>();
+      StringBuilder field = new StringBuilder();
+      boolean quoted = false;
+      boolean started = false;
+      int length = 0;
+      while (true) {
+        if (c == -1) {
+          fields.add(field.toString());
+          return fields;
+        }
+        if (++length > MAX_RECORD_LENGTH && !overflowed) {
+          overflowed = true;
+          fields.clear();
+          field.setLength(0);
+        }
+        if (quoted) {
+          if (c == '"') {
+            int peek = nextChar();
+            if (peek == '"') {
+              append(field, '"');
+            } else {
+              quoted = false;
+              pending = peek;
+            }
+          } else {
+            if (c == '\n') {
+              line++;
+            }
+            append(field, (char) c);
+          }
+        } else if (c == '"' && !started) {
+          quoted = true;
+          started = true;
+        } else if (c == ',') {
+          if (!overflowed) {
+            fields.add(field.toString());
+          }
+          field.setLength(0);
+          started = false;
+        } else if (c == '\r') {
+          // swallowed; the following \n ends the record
+        } else if (c == '\n') {
+          line++;
+          fields.add(field.toString());
+          return fields;
+        } else {
+          append(field, (char) c);
+          started = true;
+        }
+        c = nextChar();
+      }
+    }
+
+    private void append(StringBuilder field, char c) {
+      if (!overflowed) {
+        field.append(c);
+      }
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package ro.baskitup.adapters.web;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+import ro.baskitup.application.catalog.CatalogIndex;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET for catalog reads. The strong ETag combines the process generation, the
+ * {@link CatalogIndex#version() catalog version} and an optional discriminator (e.g. the date for
+ * seasonal picks); a matching {@code If-None-Match} gets a 304 before the body is computed.
+ */
+@Component
+public class CatalogETags {
+  private final CatalogIndex catalog;
+  private final CacheControl cacheControl;
+  private final String generation = Long.toString(System.currentTimeMillis(), 36);
+
+  public CatalogETags(CatalogIndex catalog, @Value("${app.catalog.http-max-age:0s}") Duration maxAge) {
+    this.catalog = catalog;
+    this.cacheControl = maxAge.isZero()
+        ? CacheControl.noCache().cachePublic()
+        : CacheControl.maxAge(maxAge).cachePublic().mustRevalidate();
+  }
+
+  public <T> ResponseEntity<T> respond(WebRequest request, Supplier<T> body) {
+    return respond(request, null, body);
+  }
+
+  public <T> ResponseEntity<T> respond(WebRequest request, String discriminator, Supplier<T> body) {
+    // Read before the body. The catalog publishes a version only after its snapshot, so the body
+    // is at least as new as the tag; a write landing meanwhile only makes it newer, and the next
+    // request revalidates against the newer version.
+    String etag = current(discriminator);
+    if (request.checkNotModified(etag)) {
+      return notModified(etag);
+    }
+    return ResponseEntity.ok().eTag(etag).cacheControl(cacheControl).body(body.get());
+  }
+
+  String current(String discriminator) {
+    return "\"" + generation + "-" + catalog.version() + (discriminator == null ? "" : "-" + discriminator) + "\"";
+  }
+
+  CacheControl cacheControl() {
+    return cacheControl;
+  }
+
+  <T> ResponseEntity<T> notModified(String etag) {
+    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl).build();
+  }
+}
@@ -0,0 +1,155 @@
+package ro.baskitup.adapters.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps hot catalog responses as encoded UTF-8 JSON plus a gzipped copy, so a repeated request
+ * skips mapping and Jackson and only copies bytes to the response. Entries are tagged with the
+ * {@link CatalogETags} value they were built for and are rebuilt once the catalog version moves
+ * on; the least recently used ones are evicted when the total size exceeds the byte budget.
+ */
+@Component
+public class CatalogResponseCache {
+  private static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+  private final CatalogETags etags;
+  private final ObjectMapper objectMapper;
+  private final long maxBytes;
+  private final Map<Object, Encoded> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long bytes;
+
+  public CatalogResponseCache(
+      CatalogETags etags,
+      ObjectMapper objectMapper,
+      @Value("${app.catalog.response-cache-size:32MB}") DataSize maxSize
+  ) {
+    this.etags = etags;
+    this.objectMapper = objectMapper;
+    this.maxBytes = maxSize.toBytes();
+  }
+
+  /**
+   * Marks a body that must be neither cached nor revalidated, such as a degraded fallback: it is
+   * sent {@code no-store}, without an ETag.
+   */
+  public static Object uncached(Object body) {
+    return new Uncached(body);
+  }
+
+  /**
+   * Conditional, cached response for {@code key}: a value identifying the endpoint and its
+   * parameters, such as a record, compared with {@code equals}. A body wrapped with
+   * {@link #uncached} skips both.
+   */
+  public ResponseEntity<byte[]> respond(WebRequest request, Object key, String discriminator, Supplier<?> body) {
+    String etag = etags.current(discriminator);
+    if (request.checkNotModified(etag)) {
+      return etags.notModified(etag);
+    }
+    Encoded encoded = lookup(key, etag);
+    if (encoded == null) {
+      Object value = body.get();
+      if (value instanceof Uncached uncached) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noStore())
+            .contentType(JSON)
+            .body(json(uncached.body()));
+      }
+      encoded = encode(etag, value);
+      store(key, encoded);
+    }
+
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+        .eTag(etag)
+        .cacheControl(etags.cacheControl())
+        .contentType(JSON)
+        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+      return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(encoded.gzip());
+    }
+    return response.body(encoded.json());
+  }
+
+  private synchronized Encoded lookup(Object key, String etag) {
+    Encoded encoded = entries.get(key);
+    return encoded != null && encoded.etag().equals(etag) ? encoded : null;
+  }
+
+  private synchronized void store(Object key, Encoded encoded) {
+    // A single response above a quarter of the budget would flush everything else; serve it uncached.
+    if (encoded.size() > maxBytes / 4) {
+      return;
+    }
+    Encoded previous = entries.put(key, encoded);
+    if (previous != null) {
+      bytes -= previous.size();
+    }
+    bytes += encoded.size();
+    Iterator<Encoded> eldest = entries.values().iterator();
+    while (bytes > maxBytes && eldest.hasNext()) {
+      bytes -= eldest.next().size();
+      eldest.remove();
+    }
+  }
+
+  private Encoded encode(String etag, Object body) {
+    try {
+      byte[] json = json(body);
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+      try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+        gzip.write(json);
+      }
+      return new Encoded(etag, json, buffer.toByteArray());
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private byte[] json(Object body) {
+    try {
+      return objectMapper.writeValueAsBytes(body);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Could not serialize catalog response", ex);
+    }
+  }
+
+  static boolean acceptsGzip(String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    for (String part : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+      String[] coding = part.trim().split(";");
+      if (coding[0].trim().equals("gzip")) {
+        return coding.length == 1 || !coding[1].replace(" ", "").matches("q=0(\\.0*)?");
+      }
+    }
+    return false;
+  }
+
+  private record Uncached(Object body) {}
+
+  private record Encoded(String etag, byte[] json, byte[] gzip) {
+    long size() {
+      return json.length + gzip.length + etag.length();
+    }
+  }
+}
@@ -4,8 +4,11 @@ import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import ro.baskitup.application.services.CartService;
@@ -15,16 +18,19 @@ import ro.baskitup.application.services.CartService.ShippingMethod;
 import ro.baskitup.application.services.CheckoutService;
 import ro.baskitup.application.services.CheckoutService.CheckoutRequest;
 import ro.baskitup.application.services.CheckoutService.CheckoutResponse;
+import ro.baskitup.config.JwtAuthenticationFilter.SecuredUser;
 
 @RestController
 @RequestMapping("/api")
 public class CheckoutController {
   private final CheckoutService checkout;
   private final CartService cartService;
+  private final IdempotentRequests idempotent;
 
-  public CheckoutController(CheckoutService checkout, CartService cartService) {
+  public CheckoutController(CheckoutService checkout, CartService cartService, IdempotentRequests idempotent) {
     this.checkout = checkout;
     this.cartService = cartService;
+    this.idempotent = idempotent;
   }
 
   @PostMapping("/cart/estimate")
@@ -35,9 +41,19 @@ public class CheckoutController {
     );
   }
 
+  /**
+   * Returns a {@link CheckoutResponse}; retries carrying the same {@code Idempotency-Key} get the
+   * first response instead of a second order.
+   */
   @PostMapping("/checkout/session")
-  public CheckoutResponse session(@Valid @RequestBody CheckoutRequest request) {
-    return checkout.initCheckout(request);
+  public ResponseEntity<?> session(
+      @AuthenticationPrincipal SecuredUser user,
+      @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+      @Valid @RequestBody CheckoutRequest request
+  ) {
+    // Guests are keyed by email: the response carries the order id and its client secret.
+    String caller = user != null ? "user:" + user.id() : "email:" + request.email().trim().toLowerCase();
+    return idempotent.execute(idempotencyKey, "checkout", caller, request, () -> checkout.initCheckout(request));
   }
 
   public record EstimateRequest(
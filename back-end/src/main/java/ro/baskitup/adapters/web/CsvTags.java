@@ -0,0 +1,55 @@
+package ro.baskitup.adapters.web;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The tags column of the CSV import and export: tags separated by {@code |}, with a {@code |} or
+ * {@code \} inside a tag escaped by a backslash.
+ */
+final class CsvTags {
+
+  private CsvTags() {
+  }
+
+  static String join(List<String> tags) {
+    StringBuilder out = new StringBuilder();
+    for (String tag : tags) {
+      if (!out.isEmpty()) {
+        out.append('|');
+      }
+      for (int i = 0; i < tag.length(); i++) {
+        char c = tag.charAt(i);
+        if (c == '|' || c == '\\') {
+          out.append('\\');
+        }
+        out.append(c);
+      }
+    }
+    return out.toString();
+  }
+
+  /**
+   * Inverse of {@link #join}; each tag is trimmed and trailing empty ones are dropped.
+   */
+  static List<String> split(String value) {
+    List<String> tags = new ArrayList<>();
+    StringBuilder tag = new StringBuilder();
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        tag.append(value.charAt(++i));
+      } else if (c == '|') {
+        tags.add(tag.toString());
+        tag.setLength(0);
+      } else {
+        tag.append(c);
+      }
+    }
+    tags.add(tag.toString());
+    while (!tags.isEmpty() && tags.get(tags.size() - 1).isEmpty()) {
+      tags.remove(tags.size() - 1);
+    }
+    return tags.stream().map(String::trim).toList();
+  }
+}
@@ -1,9 +1,17 @@
 package ro.baskitup.adapters.web;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ro.baskitup.application.services.RecommendationEngine;
+import ro.baskitup.application.strategy.PersonalizedRecommendations;
+import ro.baskitup.application.strategy.RecommendationContext;
+import ro.baskitup.config.JwtAuthenticationFilter.SecuredUser;
 import ro.baskitup.domain.view.BasketSummaryView;
 
 import java.util.List;
@@ -12,13 +20,46 @@ import java.util.List;
 @RequestMapping("/api")
 public class HomeController {
   private final RecommendationEngine engine;
+  private final CatalogResponseCache responses;
+  private final PersonalizedRecommendations personalized;
 
-  public HomeController(RecommendationEngine engine) {
+  public HomeController(
+      RecommendationEngine engine,
+      CatalogResponseCache responses,
+      PersonalizedRecommendations personalized
+  ) {
     this.engine = engine;
+    this.responses = responses;
+    this.personalized = personalized;
   }
 
+  /**
+   * Signed-in customers with order history get their own picks (never stored by shared caches);
+   * everyone else gets the shared, pre-encoded {@code List<BasketSummaryView>} JSON. A fallback
+   * answer given while a strategy is over its budget is sent uncached, so it does not stick for the
+   * rest of the day. Both vary by {@code Authorization}, so a shared cache never hands the public
+   * list to a customer with picks of their own.
+   */
   @GetMapping("/featured")
-  public List<BasketSummaryView> featured() {
-    return engine.getFeatured();
+  public ResponseEntity<?> featured(@AuthenticationPrincipal SecuredUser user, WebRequest request) {
+    if (user != null) {
+      List<BasketSummaryView> picks = personalized.featured(user.id(), user.email());
+      if (!picks.isEmpty()) {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .varyBy(HttpHeaders.AUTHORIZATION)
+            .body(picks);
+      }
+    }
+    // Seasonal picks change with the date and the keyword config even when the catalog does not.
+    String discriminator = RecommendationContext.now().date() + "." + engine.revision();
+    ResponseEntity<byte[]> shared = responses.respond(request, "featured", discriminator, () -> {
+      RecommendationEngine.Evaluation featured = engine.getFeatured();
+      return featured.complete() ? featured.featured() : CatalogResponseCache.uncached(featured.featured());
+    });
+    HttpHeaders headers = new HttpHeaders();
+    headers.addAll(shared.getHeaders());
+    headers.add(HttpHeaders.VARY, HttpHeaders.AUTHORIZATION);
+    return new ResponseEntity<>(shared.getBody(), headers, shared.getStatusCode());
   }
 }
@@ -0,0 +1,319 @@
+package ro.baskitup.adapters.web;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.IdempotencyKeyEntity;
+import ro.baskitup.adapters.persistence.IdempotencyKeyEntity.Status;
+import ro.baskitup.adapters.persistence.IdempotencyKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * {@code Idempotency-Key} handling for endpoints that create orders. A key is scoped by endpoint
+ * and caller, and claimed in the {@code idempotency_keys} table before the request runs, so two
+ * instances (or one restarted mid-request) never both run it: the one that loses the claim waits
+ * for the owner's response and replays it. The first successful response is kept as JSON, in a
+ * bounded in-memory LRU and in the table, for {@code app.idempotency.ttl}. A failed request gives
+ * its claim up, so the client may retry it; a claim left pending for
+ * {@code app.idempotency.pending-timeout} is taken to be abandoned. Reusing a key for a different
+ * body is rejected.
+ */
+@Component
+public class IdempotentRequests {
+  public static final String HEADER = "Idempotency-Key";
+  private static final Logger log = LoggerFactory.getLogger(IdempotentRequests.class);
+  private static final int MAX_KEY_LENGTH = 128;
+  private static final Duration WAIT_FOR_FIRST = Duration.ofSeconds(30);
+  private static final long POLL_MILLIS = 100;
+  private static final MediaType JSON = MediaType.APPLICATION_JSON;
+
+  private final IdempotencyKeyRepository repository;
+  private final ObjectMapper objectMapper;
+  private final Duration ttl;
+  private final Duration pendingTimeout;
+  private final Map<String, Stored> recent;
+  private final Map<String, CompletableFuture<Stored>> inFlight = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService purger;
+
+  public IdempotentRequests(
+      IdempotencyKeyRepository repository,
+      ObjectMapper objectMapper,
+      @Value("${app.idempotency.ttl:24h}") Duration ttl,
+      @Value("${app.idempotency.pending-timeout:2m}") Duration pendingTimeout,
+      @Value("${app.idempotency.max-entries:10000}") int maxEntries
+  ) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.ttl = ttl;
+    this.pendingTimeout = pendingTimeout;
+    this.recent = new LinkedHashMap<>(256, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+        return size() > maxEntries;
+      }
+    };
+    this.purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "idempotency-purge");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = Math.min(ttl.toMillis(), Duration.ofHours(1).toMillis());
+    purger.scheduleWithFixedDelay(this::purge, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Runs {@code action} once per key for {@code caller} (a user id or client key) within
+   * {@code scope}; without a key it simply runs it.
+   */
+  public ResponseEntity<?> execute(String key, String scope, String caller, Object request, Supplier<?> action) {
+    if (!StringUtils.hasText(key)) {
+      return ResponseEntity.ok(action.get());
+    }
+    if (key.length() > MAX_KEY_LENGTH) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cheia de idempotență este prea lungă");
+    }
+    // The same key from another caller is another key, so a guessed key replays nothing.
+    String scoped = (caller == null ? "" : caller) + "\n" + key.trim();
+    String id = scope + ":" + sha256(scoped.getBytes(StandardCharsets.UTF_8));
+    String fingerprint = sha256(encode(request));
+
+    Stored stored = cached(id);
+    if (stored != null) {
+      return replay(stored, fingerprint);
+    }
+    CompletableFuture<Stored> mine = new CompletableFuture<>();
+    CompletableFuture<Stored> first = inFlight.putIfAbsent(id, mine);
+    if (first != null) {
+      return replay(await(first), fingerprint);
+    }
+    boolean replayed;
+    try {
+      IdempotencyKeyEntity claim = claim(id, fingerprint);
+      replayed = claim.getStatus() == Status.COMPLETED;
+      stored = replayed ? stored(claim) : run(claim, action);
+      if (!stored.fingerprint().equals(fingerprint)) {
+        throw keyReused();
+      }
+      mine.complete(stored);
+    } catch (RuntimeException ex) {
+      mine.completeExceptionally(ex);
+      throw ex;
+    } finally {
+      inFlight.remove(id, mine);
+    }
+    return replayed ? replay(stored, fingerprint) : ResponseEntity.ok().contentType(JSON).body(stored.json());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    purger.shutdownNow();
+  }
+
+  private Stored cached(String id) {
+    long cutoff = System.currentTimeMillis() - ttl.toMillis();
+    synchronized (recent) {
+      Stored stored = recent.get(id);
+      if (stored != null) {
+        if (stored.createdAt() >= cutoff) {
+          return stored;
+        }
+        recent.remove(id);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Inserts a pending row for the key, or returns the row that is already there once it is
+   * completed. A row that expired or was abandoned while pending is taken over; a pending row for
+   * the same request is polled until its owner finishes.
+   */
+  private IdempotencyKeyEntity claim(String id, String fingerprint) {
+    long deadline = System.nanoTime() + WAIT_FOR_FIRST.toNanos();
+    boolean insert = true;
+    while (true) {
+      Instant now = Instant.ofEpochMilli(System.currentTimeMillis());
+      IdempotencyKeyEntity entity = new IdempotencyKeyEntity();
+      entity.setId(id);
+      entity.setFingerprint(fingerprint);
+      entity.setStatus(Status.PENDING);
+      entity.setCreatedAt(now);
+      if (insert) {
+        try {
+          return repository.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException ex) {
+          log.debug("Idempotency key {} is already claimed", id);
+        }
+      }
+      IdempotencyKeyEntity existing = repository.findById(id).orElse(null);
+      insert = existing == null;
+      if (insert) {
+        continue;
+      }
+      boolean expired = existing.getCreatedAt().isBefore(now.minus(ttl));
+      boolean abandoned = existing.getStatus() == Status.PENDING
+          && existing.getCreatedAt().isBefore(now.minus(pendingTimeout));
+      if (expired || abandoned) {
+        if (repository.takeOver(id, fingerprint, now, existing.getCreatedAt()) == 1) {
+          if (abandoned) {
+            log.warn("Idempotency key {} was left pending since {}; running the request again", id,
+                existing.getCreatedAt());
+          }
+          return entity;
+        }
+        continue;
+      }
+      if (!existing.getFingerprint().equals(fingerprint)) {
+        throw keyReused();
+      }
+      if (existing.getStatus() == Status.COMPLETED) {
+        return existing;
+      }
+      if (System.nanoTime() > deadline) {
+        throw stillRunning();
+      }
+      sleep();
+    }
+  }
+
+  /**
+   * Runs the request under our claim: the response completes the row, a failure deletes it.
+   */
+  private Stored run(IdempotencyKeyEntity claim, Supplier<?> action) {
+    byte[] json;
+    try {
+      json = encode(action.get());
+    } catch (RuntimeException ex) {
+      try {
+        repository.release(claim.getId(), claim.getCreatedAt());
+      } catch (RuntimeException releaseFailure) {
+        ex.addSuppressed(releaseFailure);
+      }
+      throw ex;
+    }
+    Stored stored = new Stored(claim.getFingerprint(), json, claim.getCreatedAt().toEpochMilli());
+    try {
+      if (repository.complete(claim.getId(), claim.getCreatedAt(), new String(json, StandardCharsets.UTF_8)) == 0) {
+        log.warn("Idempotency key {} was taken over before its response was stored", claim.getId());
+      }
+    } catch (RuntimeException ex) {
+      // The request did happen; answer it, and let the claim lapse as abandoned.
+      log.warn("Could not store the response for idempotency key {}", claim.getId(), ex);
+    }
+    synchronized (recent) {
+      recent.put(claim.getId(), stored);
+    }
+    return stored;
+  }
+
+  private Stored stored(IdempotencyKeyEntity entity) {
+    Stored stored = new Stored(
+        entity.getFingerprint(),
+        entity.getResponse().getBytes(StandardCharsets.UTF_8),
+        entity.getCreatedAt().toEpochMilli());
+    synchronized (recent) {
+      recent.put(entity.getId(), stored);
+    }
+    return stored;
+  }
+
+  private Stored await(CompletableFuture<Stored> first) {
+    try {
+      return first.get(WAIT_FOR_FIRST.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (ExecutionException ex) {
+      if (ex.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      throw new IllegalStateException(ex.getCause());
+    } catch (TimeoutException ex) {
+      throw stillRunning();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw interrupted();
+    }
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(POLL_MILLIS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw interrupted();
+    }
+  }
+
+  private ResponseEntity<byte[]> replay(Stored stored, String fingerprint) {
+    if (!stored.fingerprint().equals(fingerprint)) {
+      throw keyReused();
+    }
+    return ResponseEntity.ok().contentType(JSON).header("Idempotent-Replayed", "true").body(stored.json());
+  }
+
+  private void purge() {
+    try {
+      int removed = repository.deleteCreatedBefore(Instant.now().minus(ttl));
+      if (removed > 0) {
+        log.info("Purged {} expired idempotency keys", removed);
+      }
+    } catch (RuntimeException ex) {
+      log.warn("Could not purge expired idempotency keys", ex);
+    }
+  }
+
+  private byte[] encode(Object body) {
+    try {
+      return objectMapper.writeValueAsBytes(body);
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Could not encode response", ex);
+    }
+  }
+
+  private static String sha256(byte[] bytes) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static ResponseStatusException keyReused() {
+    return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+        "Cheia de idempotență a fost folosită pentru o altă cerere");
+  }
+
+  private static ResponseStatusException stillRunning() {
+    return new ResponseStatusException(HttpStatus.CONFLICT, "Cererea este încă în procesare");
+  }
+
+  private static ResponseStatusException interrupted() {
+    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Cererea a fost întreruptă");
+  }
+
+  private record Stored(String fingerprint, byte[] json, long createdAt) {}
+}
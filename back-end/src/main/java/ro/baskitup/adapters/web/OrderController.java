@@ -1,9 +1,12 @@
 package ro.baskitup.adapters.web;
 
 import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import ro.baskitup.application.services.OrderService;
 import ro.baskitup.application.services.OrderSnapshotRequest;
+import ro.baskitup.config.JwtAuthenticationFilter.SecuredUser;
 import ro.baskitup.domain.model.Order;
 import ro.baskitup.domain.view.OrderView;
 import ro.baskitup.domain.view.OrderView;
@@ -16,7 +19,12 @@ import java.util.UUID;
 public class OrderController {
 
   private final OrderService service;
-  public OrderController(OrderService service) { this.service = service; }
+  private final IdempotentRequests idempotent;
+
+  public OrderController(OrderService service, IdempotentRequests idempotent) {
+    this.service = service;
+    this.idempotent = idempotent;
+  }
 
   // GET /api/orders  -> list all (for debugging)
   @GetMapping
@@ -24,10 +32,15 @@ public class OrderController {
     return service.listBucket();
   }
 
-  // POST /api/orders -> create new
+  // POST /api/orders -> create new (OrderView), once per Idempotency-Key
   @PostMapping
-  public OrderView create(@Valid @RequestBody OrderSnapshotRequest request) {
-    return service.createSnapshot(request);
+  public ResponseEntity<?> create(
+      @AuthenticationPrincipal SecuredUser user,
+      @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
+      @Valid @RequestBody OrderSnapshotRequest request
+  ) {
+    String caller = user != null ? "user:" + user.id() : "client:" + request.userKey();
+    return idempotent.execute(idempotencyKey, "orders", caller, request, () -> service.createSnapshot(request));
   }
 
   // POST /api/orders/{id}/paid
@@ -0,0 +1,226 @@
+package ro.baskitup.application.catalog;
+
+import org.springframework.stereotype.Component;
+import ro.baskitup.domain.view.BasketSearchHit;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Typo-tolerant search over the catalog snapshot. Text is folded with {@link CatalogText} (so
+ * "craciun" finds "Crăciun") and split into padded character trigrams; a basket scores by the
+ * share of query trigrams it contains, title matches weighing more than prompt, tag and category
+ * matches.
+ */
+@Component
+public class BasketSearchEngine {
+  private static final int ALPHABET = 37;
+  private static final int GRAM_SPACE = ALPHABET * ALPHABET * ALPHABET;
+  private static final double BODY_WEIGHT = 0.8;
+  private static final double MIN_SCORE = 0.35;
+
+  private final CatalogIndex catalog;
+  private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+  private volatile TrigramIndex index;
+
+  public BasketSearchEngine(CatalogIndex catalog) {
+    this.catalog = catalog;
+  }
+
+  /**
+   * Best matches first, at most {@code limit} of them.
+   */
+  public List<BasketSearchHit> search(String query, int limit) {
+    int[] grams = trigrams(CatalogText.tokens(query));
+    if (grams.length == 0 || limit <= 0) {
+      return List.of();
+    }
+    CatalogSnapshot snapshot = catalog.snapshot();
+    TrigramIndex current = index(snapshot);
+    Scratch counts = scratch.get().ensure(snapshot.size());
+    int[] titleHits = counts.titleHits;
+    int[] bodyHits = counts.bodyHits;
+    int[] touched = counts.touched;
+    int touchedCount = 0;
+    for (int gram : grams) {
+      int[] postings = current.title[gram];
+      if (postings != null) {
+        for (int ordinal : postings) {
+          if (titleHits[ordinal]++ == 0 && bodyHits[ordinal] == 0) {
+            touched = push(touched, touchedCount++, ordinal);
+          }
+        }
+      }
+      postings = current.body[gram];
+      if (postings != null) {
+        for (int ordinal : postings) {
+          if (bodyHits[ordinal]++ == 0 && titleHits[ordinal] == 0) {
+            touched = push(touched, touchedCount++, ordinal);
+          }
+        }
+      }
+    }
+    counts.touched = touched;
+
+    Comparator<Candidate> worstFirst = Comparator.comparingDouble(Candidate::score)
+        .thenComparing(Candidate::ordinal, Comparator.reverseOrder());
+    PriorityQueue<Candidate> top = new PriorityQueue<>(worstFirst);
+    for (int i = 0; i < touchedCount; i++) {
+      int ordinal = touched[i];
+      double score = Math.max(
+          (double) titleHits[ordinal] / grams.length,
+          BODY_WEIGHT * bodyHits[ordinal] / grams.length);
+      titleHits[ordinal] = 0;
+      bodyHits[ordinal] = 0;
+      if (score < MIN_SCORE) {
+        continue;
+      }
+      Candidate candidate = new Candidate(ordinal, score);
+      if (top.size() < limit) {
+        top.add(candidate);
+      } else if (worstFirst.compare(candidate, top.peek()) > 0) {
+        top.poll();
+        top.add(candidate);
+      }
+    }
+
+    List<Candidate> ranked = new ArrayList<>(top);
+    ranked.sort(worstFirst.reversed());
+    List<BasketSearchHit> hits = new ArrayList<>(ranked.size());
+    for (Candidate candidate : ranked) {
+      double rounded = Math.round(candidate.score() * 1000) / 1000.0;
+      hits.add(new BasketSearchHit(snapshot.get(candidate.ordinal()), rounded));
+    }
+    return hits;
+  }
+
+  private TrigramIndex index(CatalogSnapshot snapshot) {
+    TrigramIndex current = index;
+    if (current != null && current.layout == snapshot.layout()) {
+      return current;
+    }
+    synchronized (this) {
+      if (index == null || index.layout != snapshot.layout()) {
+        index = new TrigramIndex(snapshot);
+      }
+      return index;
+    }
+  }
+
+  private static int[] push(int[] values, int position, int value) {
+    int[] out = position == values.length ? Arrays.copyOf(values, values.length * 2) : values;
+    out[position] = value;
+    return out;
+  }
+
+  /**
+   * Distinct trigram codes of the tokens, each token padded as {@code "  token "}.
+   */
+  static int[] trigrams(List<String> tokens) {
+    int[] out = new int[16];
+    int count = 0;
+    for (String token : tokens) {
+      String padded = "  " + token + " ";
+      for (int i = 0; i + 3 <= padded.length(); i++) {
+        int gram = (code(padded.charAt(i)) * ALPHABET + code(padded.charAt(i + 1))) * ALPHABET
+            + code(padded.charAt(i + 2));
+        out = push(out, count++, gram);
+      }
+    }
+    Arrays.sort(out, 0, count);
+    int distinct = 0;
+    for (int i = 0; i < count; i++) {
+      if (distinct == 0 || out[distinct - 1] != out[i]) {
+        out[distinct++] = out[i];
+      }
+    }
+    return Arrays.copyOf(out, distinct);
+  }
+
+  private static int code(char c) {
+    if (c >= 'a' && c <= 'z') {
+      return c - 'a' + 1;
+    }
+    if (c >= '0' && c <= '9') {
+      return c - '0' + 27;
+    }
+    return 0;
+  }
+
+  private record Candidate(int ordinal, double score) {}
+
+  /**
+   * Per-thread hit counters, grown with the catalog. Only the ordinals a query touched are
+   * non-zero while it runs, and they are reset before it returns.
+   */
+  private static final class Scratch {
+    private int[] titleHits = new int[0];
+    private int[] bodyHits = new int[0];
+    private int[] touched = new int[16];
+
+    Scratch ensure(int size) {
+      if (titleHits.length < size) {
+        titleHits = new int[size];
+        bodyHits = new int[size];
+      }
+      return this;
+    }
+  }
+
+  private static final class TrigramIndex {
+    private final Object layout;
+    private final int[][] title = new int[GRAM_SPACE][];
+    private final int[][] body = new int[GRAM_SPACE][];
+
+    TrigramIndex(CatalogSnapshot snapshot) {
+      this.layout = snapshot.layout();
+      int[] titleSizes = new int[GRAM_SPACE];
+      int[] bodySizes = new int[GRAM_SPACE];
+      for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+        BasketSummaryView view = snapshot.get(ordinal);
+        append(title, titleSizes, titleGrams(view), ordinal);
+        append(body, bodySizes, bodyGrams(view), ordinal);
+      }
+      trim(title, titleSizes);
+      trim(body, bodySizes);
+    }
+
+    private static int[] titleGrams(BasketSummaryView view) {
+      return trigrams(CatalogText.tokens(view.title()));
+    }
+
+    private static int[] bodyGrams(BasketSummaryView view) {
+      List<String> tokens = new ArrayList<>(CatalogText.tokens(view.prompt()));
+      tokens.addAll(CatalogText.tokens(view.category()));
+      for (String tag : view.tags()) {
+        tokens.addAll(CatalogText.tokens(tag));
+      }
+      return trigrams(tokens);
+    }
+
+    private static void append(int[][] postings, int[] sizes, int[] grams, int ordinal) {
+      for (int gram : grams) {
+        int[] list = postings[gram];
+        if (list == null) {
+          list = new int[4];
+        } else if (sizes[gram] == list.length) {
+          list = Arrays.copyOf(list, list.length * 2);
+        }
+        list[sizes[gram]++] = ordinal;
+        postings[gram] = list;
+      }
+    }
+
+    private static void trim(int[][] postings, int[] sizes) {
+      for (int gram = 0; gram < postings.length; gram++) {
+        if (postings[gram] != null && postings[gram].length != sizes[gram]) {
+          postings[gram] = Arrays.copyOf(postings[gram], sizes[gram]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,237 @@
+package ro.baskitup.application.catalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Search-box completions from basket titles, tags and categories. Phrases live in a prefix trie
+ * whose nodes keep sorted child arrays and a precomputed top list, so a lookup is one walk down
+ * the prefix. Popularity is the number of baskets using the phrase; the trie is patched on every
+ * catalog change instead of being rebuilt.
+ */
+@Component
+public class BasketSuggester implements CatalogListener {
+  private static final Logger log = LoggerFactory.getLogger(BasketSuggester.class);
+  public static final int MAX_SUGGESTIONS = 10;
+  private static final int MAX_KEY_LENGTH = 64;
+  private static final Comparator<Entry> RANKING = Comparator
+      .comparingInt((Entry entry) -> -entry.baskets)
+      .thenComparingInt(entry -> entry.display.length())
+      .thenComparing(entry -> entry.display);
+
+  private final CatalogIndex catalog;
+  private final int maxEntries;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private Node root = new Node();
+  private int entries;
+
+  public BasketSuggester(CatalogIndex catalog, @Value("${app.catalog.suggest-max-entries:50000}") int maxEntries) {
+    this.catalog = catalog;
+    this.maxEntries = maxEntries;
+  }
+
+  public List<String> suggest(String prefix, int limit) {
+    String key = normalize(prefix);
+    if (key.isEmpty()) {
+      return List.of();
+    }
+    catalog.snapshot();
+    lock.readLock().lock();
+    try {
+      Node node = root;
+      for (int i = 0; i < key.length() && node != null; i++) {
+        node = node.child(key.charAt(i));
+      }
+      if (node == null) {
+        return List.of();
+      }
+      List<String> out = new ArrayList<>(Math.min(limit, node.top.length));
+      for (int i = 0; i < node.top.length && out.size() < limit; i++) {
+        out.add(node.top[i].display);
+      }
+      return out;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void catalogLoaded(CatalogSnapshot snapshot) {
+    lock.writeLock().lock();
+    try {
+      root = new Node();
+      entries = 0;
+      for (BasketSummaryView view : snapshot.entries()) {
+        apply(view, 1);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void basketChanged(BasketSummaryView previous, BasketSummaryView current, CatalogSnapshot snapshot) {
+    lock.writeLock().lock();
+    try {
+      if (previous != null) {
+        apply(previous, -1);
+      }
+      if (current != null) {
+        apply(current, 1);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void apply(BasketSummaryView view, int delta) {
+    Map<String, String> phrases = new LinkedHashMap<>();
+    phrases.putIfAbsent(normalize(view.title()), view.title());
+    phrases.putIfAbsent(normalize(view.category()), view.category());
+    for (String tag : view.tags()) {
+      phrases.putIfAbsent(normalize(tag), tag);
+    }
+    phrases.forEach((key, display) -> {
+      if (!key.isEmpty()) {
+        update(key, display.trim(), delta);
+      }
+    });
+  }
+
+  private void update(String key, String display, int delta) {
+    Node[] path = new Node[key.length() + 1];
+    path[0] = root;
+    Node node = root;
+    for (int i = 0; i < key.length(); i++) {
+      Node next = node.child(key.charAt(i));
+      if (next == null) {
+        if (delta < 0) {
+          return;
+        }
+        if (entries >= maxEntries) {
+          log.debug("Suggestion trie is full ({} phrases), skipping '{}'", entries, display);
+          return;
+        }
+        next = node.addChild(key.charAt(i));
+      }
+      path[i + 1] = next;
+      node = next;
+    }
+
+    Entry entry = node.terminal;
+    if (entry == null) {
+      if (delta < 0) {
+        return;
+      }
+      if (entries >= maxEntries) {
+        return;
+      }
+      entry = new Entry(display);
+      node.terminal = entry;
+      entries++;
+    }
+    entry.baskets += delta;
+    if (delta > 0) {
+      entry.display = display;
+    }
+    if (entry.baskets <= 0) {
+      node.terminal = null;
+      entries--;
+    }
+
+    for (int depth = key.length(); depth >= 0; depth--) {
+      Node current = path[depth];
+      if (depth > 0 && current.terminal == null && current.labels.length == 0) {
+        path[depth - 1].removeChild(key.charAt(depth - 1));
+      } else {
+        current.recomputeTop();
+      }
+    }
+  }
+
+  private static String normalize(String text) {
+    String key = String.join(" ", CatalogText.tokens(text));
+    return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+  }
+
+  private static final class Entry {
+    private String display;
+    private int baskets;
+
+    Entry(String display) {
+      this.display = display;
+    }
+  }
+
+  private static final class Node {
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Entry[] NO_ENTRIES = new Entry[0];
+
+    private char[] labels = NO_LABELS;
+    private Node[] children = NO_CHILDREN;
+    private Entry terminal;
+    private Entry[] top = NO_ENTRIES;
+
+    Node child(char label) {
+      int i = Arrays.binarySearch(labels, label);
+      return i >= 0 ? children[i] : null;
+    }
+
+    Node addChild(char label) {
+      int i = -Arrays.binarySearch(labels, label) - 1;
+      char[] nextLabels = new char[labels.length + 1];
+      Node[] nextChildren = new Node[children.length + 1];
+      System.arraycopy(labels, 0, nextLabels, 0, i);
+      System.arraycopy(children, 0, nextChildren, 0, i);
+      System.arraycopy(labels, i, nextLabels, i + 1, labels.length - i);
+      System.arraycopy(children, i, nextChildren, i + 1, children.length - i);
+      Node child = new Node();
+      nextLabels[i] = label;
+      nextChildren[i] = child;
+      labels = nextLabels;
+      children = nextChildren;
+      return child;
+    }
+
+    void removeChild(char label) {
+      int i = Arrays.binarySearch(labels, label);
+      if (i < 0) {
+        return;
+      }
+      char[] nextLabels = new char[labels.length - 1];
+      Node[] nextChildren = new Node[children.length - 1];
+      System.arraycopy(labels, 0, nextLabels, 0, i);
+      System.arraycopy(children, 0, nextChildren, 0, i);
+      System.arraycopy(labels, i + 1, nextLabels, i, labels.length - i - 1);
+      System.arraycopy(children, i + 1, nextChildren, i, children.length - i - 1);
+      labels = nextLabels.length == 0 ? NO_LABELS : nextLabels;
+      children = nextChildren.length == 0 ? NO_CHILDREN : nextChildren;
+    }
+
+    void recomputeTop() {
+      List<Entry> candidates = new ArrayList<>();
+      if (terminal != null) {
+        candidates.add(terminal);
+      }
+      for (Node child : children) {
+        candidates.addAll(Arrays.asList(child.top));
+      }
+      candidates.sort(RANKING);
+      int size = Math.min(MAX_SUGGESTIONS, candidates.size());
+      top = size == 0 ? NO_ENTRIES : candidates.subList(0, size).toArray(Entry[]::new);
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package ro.baskitup.application.catalog;
+
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Keyset position in the newest-first listing: the {@code (createdAt, id)} of the last basket
+ * already returned. Clients only see the opaque encoded form.
+ */
+public record CatalogCursor(Instant createdAt, UUID id) {
+
+  public static CatalogCursor after(BasketSummaryView view) {
+    return new CatalogCursor(view.createdAt(), view.id());
+  }
+
+  public String encode() {
+    String raw = createdAt.getEpochSecond() + ":" + createdAt.getNano() + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @throws IllegalArgumentException when the value was not produced by {@link #encode()}
+   */
+  public static CatalogCursor decode(String value) {
+    String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+    String[] parts = raw.split(":", 3);
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("Malformed cursor");
+    }
+    Instant createdAt;
+    try {
+      createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+    } catch (DateTimeException | ArithmeticException ex) {
+      throw new IllegalArgumentException("Cursor time out of range", ex);
+    }
+    return new CatalogCursor(createdAt, UUID.fromString(parts[2]));
+  }
+}
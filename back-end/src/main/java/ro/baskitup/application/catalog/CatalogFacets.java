@@ -0,0 +1,221 @@
+package ro.baskitup.application.catalog;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ro.baskitup.domain.view.BasketSummaryView;
+import ro.baskitup.domain.view.CatalogFacetsView;
+import ro.baskitup.domain.view.CatalogFacetsView.Bucket;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Facet filters and counts for the catalog listing. Each facet value keeps the snapshot ordinals
+ * of its baskets: a {@link BitSet} when the value is common, a sorted {@code int[]} when it is
+ * sparse (most tags), so a large tag vocabulary does not cost a full bitmap per tag.
+ */
+@Component
+public class CatalogFacets {
+  private static final int MAX_TAG_BUCKETS = 20;
+  private static final List<PriceBand> PRICE_BANDS = List.of(
+      new PriceBand("0-150", "sub 150 RON", null, new BigDecimal("150")),
+      new PriceBand("150-250", "150 - 250 RON", new BigDecimal("150"), new BigDecimal("250")),
+      new PriceBand("250-350", "250 - 350 RON", new BigDecimal("250"), new BigDecimal("350")),
+      new PriceBand("350-500", "350 - 500 RON", new BigDecimal("350"), new BigDecimal("500")),
+      new PriceBand("500+", "peste 500 RON", new BigDecimal("500"), null)
+  );
+
+  private volatile FacetIndex index;
+
+  /**
+   * Restricts {@code matches} in place to baskets carrying the tag and falling in the price band;
+   * blank values leave the set untouched.
+   */
+  public void narrow(CatalogSnapshot snapshot, BitSet matches, String tag, String priceBand) {
+    FacetIndex current = index(snapshot);
+    if (StringUtils.hasText(tag)) {
+      Postings postings = current.tags.get(CatalogText.fold(tag.trim()));
+      if (postings == null) {
+        matches.clear();
+      } else {
+        postings.retainIn(matches);
+      }
+    }
+    if (StringUtils.hasText(priceBand)) {
+      Postings postings = current.priceBands.get(priceBand.toLowerCase(Locale.ROOT));
+      if (postings == null) {
+        matches.clear();
+      } else {
+        postings.retainIn(matches);
+      }
+    }
+  }
+
+  public CatalogFacetsView count(CatalogSnapshot snapshot, BitSet matches) {
+    FacetIndex current = index(snapshot);
+    List<Bucket> categories = buckets(current.categories, current.categoryLabels, matches, Integer.MAX_VALUE);
+    List<Bucket> tags = buckets(current.tags, current.tagLabels, matches, MAX_TAG_BUCKETS);
+    List<Bucket> bands = new ArrayList<>(PRICE_BANDS.size());
+    for (PriceBand band : PRICE_BANDS) {
+      bands.add(new Bucket(band.value(), band.label(), current.priceBands.get(band.value()).countIn(matches)));
+    }
+    return new CatalogFacetsView(categories, tags, bands);
+  }
+
+  private static List<Bucket> buckets(Map<String, Postings> facet, Map<String, String> labels, BitSet matches, int limit) {
+    List<Bucket> out = new ArrayList<>();
+    facet.forEach((value, postings) -> {
+      int count = postings.countIn(matches);
+      if (count > 0) {
+        out.add(new Bucket(value, labels.get(value), count));
+      }
+    });
+    out.sort(Comparator.comparingInt(Bucket::count).reversed().thenComparing(Bucket::value));
+    return out.size() > limit ? List.copyOf(out.subList(0, limit)) : out;
+  }
+
+  private FacetIndex index(CatalogSnapshot snapshot) {
+    FacetIndex current = index;
+    if (current != null && current.layout == snapshot.layout()) {
+      return current;
+    }
+    synchronized (this) {
+      if (index == null || index.layout != snapshot.layout()) {
+        index = new FacetIndex(snapshot);
+      }
+      return index;
+    }
+  }
+
+  private record PriceBand(String value, String label, BigDecimal from, BigDecimal to) {
+    boolean contains(BigDecimal price) {
+      return (from == null || price.compareTo(from) >= 0) && (to == null || price.compareTo(to) < 0);
+    }
+  }
+
+  private static final class FacetIndex {
+    private final Object layout;
+    private final Map<String, Postings> categories;
+    private final Map<String, Postings> tags;
+    private final Map<String, Postings> priceBands;
+    private final Map<String, String> categoryLabels = new HashMap<>();
+    private final Map<String, String> tagLabels = new HashMap<>();
+
+    FacetIndex(CatalogSnapshot snapshot) {
+      this.layout = snapshot.layout();
+      Map<String, Builder> categoryBuilders = new HashMap<>();
+      Map<String, Builder> tagBuilders = new HashMap<>();
+      Map<String, Builder> bandBuilders = new LinkedHashMap<>();
+      PRICE_BANDS.forEach(band -> bandBuilders.put(band.value(), new Builder()));
+      for (int ordinal = 0; ordinal < snapshot.size(); ordinal++) {
+        BasketSummaryView view = snapshot.get(ordinal);
+        String category = CatalogText.slugify(view.category());
+        categoryLabels.putIfAbsent(category, view.category());
+        categoryBuilders.computeIfAbsent(category, key -> new Builder()).add(ordinal);
+        for (String tag : view.tags()) {
+          String key = CatalogText.fold(tag.trim());
+          tagLabels.putIfAbsent(key, tag.trim());
+          tagBuilders.computeIfAbsent(key, k -> new Builder()).add(ordinal);
+        }
+        if (view.price() != null) {
+          for (PriceBand band : PRICE_BANDS) {
+            if (band.contains(view.price())) {
+              bandBuilders.get(band.value()).add(ordinal);
+              break;
+            }
+          }
+        }
+      }
+      int size = snapshot.size();
+      this.categories = finish(categoryBuilders, size);
+      this.tags = finish(tagBuilders, size);
+      this.priceBands = finish(bandBuilders, size);
+    }
+
+    private static Map<String, Postings> finish(Map<String, Builder> builders, int size) {
+      Map<String, Postings> out = new HashMap<>(builders.size() * 2);
+      builders.forEach((key, builder) -> out.put(key, builder.build(size)));
+      return out;
+    }
+  }
+
+  /**
+   * Ordinals of the baskets carrying one facet value.
+   */
+  private interface Postings {
+    int countIn(BitSet matches);
+
+    void retainIn(BitSet matches);
+  }
+
+  private record DensePostings(BitSet bits) implements Postings {
+    @Override
+    public int countIn(BitSet matches) {
+      BitSet copy = (BitSet) bits.clone();
+      copy.and(matches);
+      return copy.cardinality();
+    }
+
+    @Override
+    public void retainIn(BitSet matches) {
+      matches.and(bits);
+    }
+  }
+
+  private record SparsePostings(int[] ordinals) implements Postings {
+    @Override
+    public int countIn(BitSet matches) {
+      int count = 0;
+      for (int ordinal : ordinals) {
+        if (matches.get(ordinal)) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    @Override
+    public void retainIn(BitSet matches) {
+      BitSet bits = new BitSet();
+      for (int ordinal : ordinals) {
+        bits.set(ordinal);
+      }
+      matches.and(bits);
+    }
+  }
+
+  private static final class Builder {
+    private int[] ordinals = new int[4];
+    private int size;
+
+    void add(int ordinal) {
+      if (size > 0 && ordinals[size - 1] == ordinal) {
+        return;
+      }
+      if (size == ordinals.length) {
+        ordinals = Arrays.copyOf(ordinals, size * 2);
+      }
+      ordinals[size++] = ordinal;
+    }
+
+    Postings build(int catalogSize) {
+      // A sorted int[] costs 32 bits per basket, a bitmap one bit per basket in the catalog.
+      if ((long) size * 32 < catalogSize) {
+        return new SparsePostings(Arrays.copyOf(ordinals, size));
+      }
+      BitSet bits = new BitSet(catalogSize);
+      for (int i = 0; i < size; i++) {
+        bits.set(ordinals[i]);
+      }
+      return new DensePostings(bits);
+    }
+  }
+}
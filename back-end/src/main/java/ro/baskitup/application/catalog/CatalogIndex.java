@@ -0,0 +1,187 @@
+package ro.baskitup.application.catalog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ro.baskitup.adapters.persistence.BasketEntity;
+import ro.baskitup.adapters.persistence.BasketRepository;
+import ro.baskitup.adapters.persistence.BasketSummaryRow;
+import ro.baskitup.application.services.BasketMapper;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Holds the current {@link CatalogSnapshot}. The snapshot is loaded on first use and afterwards
+ * patched in memory by the basket write paths once their transaction commits; every
+ * {@link CatalogListener} bean is told about each change.
+ */
+@Component
+public class CatalogIndex {
+  private static final Logger log = LoggerFactory.getLogger(CatalogIndex.class);
+  private static final int LOAD_BATCH_SIZE = 500;
+
+  private final BasketRepository baskets;
+  private final BasketMapper mapper;
+  private final ObjectProvider<CatalogListener> listeners;
+
+  private volatile CatalogSnapshot current;
+  private volatile long version;
+
+  public CatalogIndex(BasketRepository baskets, BasketMapper mapper, ObjectProvider<CatalogListener> listeners) {
+    this.baskets = baskets;
+    this.mapper = mapper;
+    this.listeners = listeners;
+  }
+
+  public CatalogSnapshot snapshot() {
+    CatalogSnapshot snapshot = current;
+    return snapshot != null ? snapshot : load();
+  }
+
+  /**
+   * Catalog version, bumped after every committed basket write. Unlike {@code snapshot().version()}
+   * it never forces a load. It is published only after the snapshot it names is in place, so a
+   * caller that reads the version and then the snapshot never sees older content than the
+   * version promises; ETags and response caches key on it.
+   */
+  public long version() {
+    return version;
+  }
+
+  /**
+   * Registers the entity to be (re)indexed after the surrounding transaction commits.
+   */
+  public void upserted(BasketEntity basket) {
+    upserted(basket, true);
+  }
+
+  /**
+   * As {@link #upserted(BasketEntity)}; with {@code stockWritten} false the snapshot keeps the
+   * stock it has, since the entity's value may predate sales written since it was read.
+   */
+  public void upserted(BasketEntity basket, boolean stockWritten) {
+    afterCommit(() -> apply(mapper.toSummary(basket), stockWritten));
+  }
+
+  public void removed(UUID id) {
+    afterCommit(() -> remove(id));
+  }
+
+  /**
+   * Applies stock levels already committed to the database in one snapshot swap and one version
+   * bump. Stock is not part of any listener's state, so listeners are not called.
+   */
+  public synchronized void stockChanged(Map<UUID, Integer> stock) {
+    if (stock.isEmpty()) {
+      return;
+    }
+    long next = version + 1;
+    if (current != null) {
+      current = current.withStock(next, stock);
+    }
+    version = next;
+  }
+
+  /**
+   * Runs a write of stock levels with the catalog locked, so a load never reads the table in the
+   * middle of it, then applies the levels it returns as {@link #stockChanged}.
+   */
+  public synchronized void writeStock(Supplier<Map<UUID, Integer>> write) {
+    stockChanged(write.get());
+  }
+
+  /**
+   * Drops the snapshot after writes that bypassed {@link #upserted} (bulk imports); the next
+   * reader reloads it from the database.
+   */
+  public synchronized void invalidate() {
+    current = null;
+    version++;
+  }
+
+  private synchronized CatalogSnapshot load() {
+    if (current == null) {
+      List<BasketSummaryView> views = new ArrayList<>();
+      List<BasketSummaryRow> batch = baskets.findNewestSummaries(PageRequest.of(0, LOAD_BATCH_SIZE));
+      while (!batch.isEmpty()) {
+        views.addAll(withTags(batch));
+        if (batch.size() < LOAD_BATCH_SIZE) {
+          break;
+        }
+        BasketSummaryRow last = batch.get(batch.size() - 1);
+        batch = baskets.findNewestSummariesAfter(last.createdAt(), last.id(), PageRequest.of(0, LOAD_BATCH_SIZE));
+      }
+      current = CatalogSnapshot.build(version + 1, views);
+      version = current.version();
+      log.info("Catalog snapshot v{} loaded with {} baskets", current.version(), current.size());
+      CatalogSnapshot loaded = current;
+      listeners.orderedStream().forEach(listener -> listener.catalogLoaded(loaded));
+    }
+    return current;
+  }
+
+  private List<BasketSummaryView> withTags(List<BasketSummaryRow> rows) {
+    Map<UUID, List<String>> tags = new HashMap<>();
+    for (Object[] pair : baskets.findTagsByBasketIds(rows.stream().map(BasketSummaryRow::id).toList())) {
+      tags.computeIfAbsent((UUID) pair[0], id -> new ArrayList<>()).add((String) pair[1]);
+    }
+    return rows.stream().map(row -> mapper.toSummary(row, tags.getOrDefault(row.id(), List.of()))).toList();
+  }
+
+  private synchronized void apply(BasketSummaryView view, boolean stockWritten) {
+    long next = version + 1;
+    if (current == null) {
+      version = next;
+      return;
+    }
+    BasketSummaryView previous = current.find(view.id());
+    if (!stockWritten && previous != null) {
+      view = view.withStock(previous.stock());
+    }
+    current = current.withUpsert(next, view);
+    version = next;
+    notifyChanged(previous, view);
+  }
+
+  private synchronized void remove(UUID id) {
+    long next = version + 1;
+    if (current == null) {
+      version = next;
+      return;
+    }
+    BasketSummaryView previous = current.find(id);
+    current = current.without(next, id);
+    version = next;
+    if (previous != null) {
+      notifyChanged(previous, null);
+    }
+  }
+
+  private void notifyChanged(BasketSummaryView previous, BasketSummaryView next) {
+    CatalogSnapshot snapshot = current;
+    listeners.orderedStream().forEach(listener -> listener.basketChanged(previous, next, snapshot));
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        action.run();
+      }
+    });
+  }
+}
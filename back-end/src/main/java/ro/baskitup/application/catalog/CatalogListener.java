@@ -0,0 +1,22 @@
+package ro.baskitup.application.catalog;
+
+import ro.baskitup.domain.view.BasketSummaryView;
+
+/**
+ * Hook for structures derived from the catalog that prefer incremental updates over rebuilding
+ * from every new {@link CatalogSnapshot}. Callbacks run one at a time, after the snapshot has been
+ * swapped in. Stock-only patches ({@link CatalogIndex#stockChanged}) are not reported.
+ */
+public interface CatalogListener {
+  /**
+   * The full catalog was (re)loaded.
+   */
+  default void catalogLoaded(CatalogSnapshot snapshot) {
+  }
+
+  /**
+   * A basket was created ({@code previous} is null), updated or deleted ({@code current} is null).
+   */
+  default void basketChanged(BasketSummaryView previous, BasketSummaryView current, CatalogSnapshot snapshot) {
+  }
+}
@@ -0,0 +1,294 @@
+package ro.baskitup.application.catalog;
+
+import org.springframework.util.StringUtils;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Immutable, versioned view of the whole catalog. Baskets are kept newest first and each one is
+ * addressed by its ordinal in that order, so index postings can be combined as bitsets and read
+ * back already sorted.
+ */
+public final class CatalogSnapshot {
+  static final Comparator<BasketSummaryView> NEWEST_FIRST = Comparator
+      .comparing(BasketSummaryView::createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+      .thenComparing(BasketSummaryView::id, Comparator.reverseOrder());
+
+  private final long version;
+  private final List<BasketSummaryView> entries;
+  private final Map<UUID, Integer> ordinals;
+  private final Map<String, Integer> slugs;
+  private final String[] terms;
+  private final int[][] postings;
+  private final Map<String, int[]> categories;
+  private final Object layout;
+
+  private CatalogSnapshot(long version, List<BasketSummaryView> entries) {
+    this.version = version;
+    this.entries = entries;
+    this.layout = new Object();
+    this.ordinals = new HashMap<>(entries.size() * 2);
+    this.slugs = new HashMap<>(entries.size() * 2);
+
+    TreeMap<String, IntList> termIndex = new TreeMap<>();
+    Map<String, IntList> categoryIndex = new HashMap<>();
+    for (int ordinal = 0; ordinal < entries.size(); ordinal++) {
+      BasketSummaryView view = entries.get(ordinal);
+      ordinals.put(view.id(), ordinal);
+      if (view.slug() != null) {
+        slugs.put(view.slug().toLowerCase(Locale.ROOT), ordinal);
+      }
+      categoryIndex.computeIfAbsent(CatalogText.slugify(view.category()), key -> new IntList()).add(ordinal);
+      for (String token : CatalogText.tokens(view.title())) {
+        termIndex.computeIfAbsent(token, key -> new IntList()).add(ordinal);
+      }
+      for (String token : CatalogText.tokens(view.prompt())) {
+        termIndex.computeIfAbsent(token, key -> new IntList()).add(ordinal);
+      }
+      for (String tag : view.tags()) {
+        for (String token : CatalogText.tokens(tag)) {
+          termIndex.computeIfAbsent(token, key -> new IntList()).add(ordinal);
+        }
+      }
+    }
+
+    this.terms = termIndex.keySet().toArray(String[]::new);
+    this.postings = new int[terms.length][];
+    int i = 0;
+    for (IntList list : termIndex.values()) {
+      postings[i++] = list.toArray();
+    }
+    this.categories = new HashMap<>(categoryIndex.size() * 2);
+    categoryIndex.forEach((slug, list) -> categories.put(slug, list.toArray()));
+  }
+
+  private CatalogSnapshot(long version, List<BasketSummaryView> entries, CatalogSnapshot source) {
+    this.version = version;
+    this.entries = entries;
+    this.layout = source.layout;
+    this.ordinals = source.ordinals;
+    this.slugs = source.slugs;
+    this.terms = source.terms;
+    this.postings = source.postings;
+    this.categories = source.categories;
+  }
+
+  public static CatalogSnapshot empty() {
+    return new CatalogSnapshot(0, List.of());
+  }
+
+  public static CatalogSnapshot build(long version, Collection<BasketSummaryView> views) {
+    List<BasketSummaryView> sorted = new ArrayList<>(views);
+    sorted.sort(NEWEST_FIRST);
+    return new CatalogSnapshot(version, List.copyOf(sorted));
+  }
+
+  /**
+   * Returns a new snapshot where the basket with the same id is replaced (or added).
+   */
+  public CatalogSnapshot withUpsert(long nextVersion, BasketSummaryView view) {
+    List<BasketSummaryView> next = new ArrayList<>(entries.size() + 1);
+    for (BasketSummaryView entry : entries) {
+      if (!entry.id().equals(view.id())) {
+        next.add(entry);
+      }
+    }
+    next.add(view);
+    return build(nextVersion, next);
+  }
+
+  /**
+   * Returns a new snapshot with the given stock levels and everything else unchanged. Ordinals and
+   * text indexes are shared with this snapshot, so it keeps the same {@link #layout()}.
+   */
+  public CatalogSnapshot withStock(long nextVersion, Map<UUID, Integer> stock) {
+    List<BasketSummaryView> next = new ArrayList<>(entries);
+    stock.forEach((id, units) -> {
+      Integer ordinal = ordinals.get(id);
+      if (ordinal != null && next.get(ordinal).stock() != units) {
+        next.set(ordinal, next.get(ordinal).withStock(units));
+      }
+    });
+    return new CatalogSnapshot(nextVersion, List.copyOf(next), this);
+  }
+
+  public CatalogSnapshot without(long nextVersion, UUID id) {
+    if (!ordinals.containsKey(id)) {
+      return new CatalogSnapshot(nextVersion, entries);
+    }
+    List<BasketSummaryView> next = new ArrayList<>(entries);
+    next.remove((int) ordinals.get(id));
+    return new CatalogSnapshot(nextVersion, List.copyOf(next));
+  }
+
+  public long version() {
+    return version;
+  }
+
+  /**
+   * Identity of the basket order and of everything but stock. Snapshots that differ only in stock
+   * share it, so structures built from titles, tags, categories or prices can be kept across them.
+   */
+  public Object layout() {
+    return layout;
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * All baskets, newest first.
+   */
+  public List<BasketSummaryView> entries() {
+    return entries;
+  }
+
+  public BasketSummaryView get(int ordinal) {
+    return entries.get(ordinal);
+  }
+
+  public BasketSummaryView find(UUID id) {
+    Integer ordinal = ordinals.get(id);
+    return ordinal == null ? null : entries.get(ordinal);
+  }
+
+  /**
+   * Case-insensitive slug lookup, like {@code BasketRepository.findBySlugIgnoreCase}.
+   */
+  public BasketSummaryView findBySlug(String slug) {
+    Integer ordinal = slug == null ? null : slugs.get(slug.toLowerCase(Locale.ROOT));
+    return ordinal == null ? null : entries.get(ordinal);
+  }
+
+  /**
+   * Filters by category slug ({@code all} or blank means no filter) and by search text. Every
+   * search token has to prefix-match a token of the title, prompt or one of the tags.
+   */
+  public List<BasketSummaryView> query(String category, String search) {
+    BitSet matches = match(category, search);
+    List<BasketSummaryView> out = new ArrayList<>(matches.cardinality());
+    for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+      out.add(entries.get(ordinal));
+    }
+    return out;
+  }
+
+  /**
+   * Keyset page over the filtered listing: up to {@code limit} baskets strictly after
+   * {@code after} (or from the start when it is {@code null}).
+   */
+  public Page page(String category, String search, CatalogCursor after, int limit) {
+    return page(match(category, search), after, limit);
+  }
+
+  /**
+   * Keyset page over an already computed set of matching ordinals.
+   */
+  public Page page(BitSet matches, CatalogCursor after, int limit) {
+    List<BasketSummaryView> items = new ArrayList<>(Math.min(limit, matches.cardinality()));
+    int ordinal = matches.nextSetBit(after == null ? 0 : firstAfter(after));
+    while (ordinal >= 0 && items.size() < limit) {
+      items.add(entries.get(ordinal));
+      ordinal = matches.nextSetBit(ordinal + 1);
+    }
+    CatalogCursor next = ordinal >= 0 && !items.isEmpty() ? CatalogCursor.after(items.get(items.size() - 1)) : null;
+    return new Page(items, next);
+  }
+
+  private int firstAfter(CatalogCursor cursor) {
+    BasketSummaryView probe = new BasketSummaryView(
+        cursor.id(), null, null, null, null, List.of(), null, 0, null, cursor.createdAt(), null);
+    int low = 0;
+    int high = entries.size();
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (NEWEST_FIRST.compare(entries.get(mid), probe) <= 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Same filter as {@link #query} but returning the matching ordinals.
+   */
+  public BitSet match(String category, String search) {
+    BitSet result = new BitSet(entries.size());
+    result.set(0, entries.size());
+    if (StringUtils.hasText(category) && !category.equalsIgnoreCase("all")) {
+      result.and(toBitSet(categories.get(category.toLowerCase(Locale.ROOT))));
+    }
+    if (StringUtils.hasText(search)) {
+      List<String> tokens = CatalogText.tokens(search);
+      if (tokens.isEmpty()) {
+        result.clear();
+      }
+      for (String token : tokens) {
+        if (result.isEmpty()) {
+          break;
+        }
+        result.and(prefixMatches(token));
+      }
+    }
+    return result;
+  }
+
+  private BitSet prefixMatches(String prefix) {
+    BitSet out = new BitSet(entries.size());
+    int from = Arrays.binarySearch(terms, prefix);
+    if (from < 0) {
+      from = -from - 1;
+    }
+    for (int i = from; i < terms.length && terms[i].startsWith(prefix); i++) {
+      for (int ordinal : postings[i]) {
+        out.set(ordinal);
+      }
+    }
+    return out;
+  }
+
+  private static BitSet toBitSet(int[] ordinals) {
+    BitSet out = new BitSet();
+    if (ordinals != null) {
+      for (int ordinal : ordinals) {
+        out.set(ordinal);
+      }
+    }
+    return out;
+  }
+
+  public record Page(List<BasketSummaryView> items, CatalogCursor next) {}
+
+  private static final class IntList {
+    private int[] values = new int[4];
+    private int size;
+
+    void add(int value) {
+      if (size > 0 && values[size - 1] == value) {
+        return;
+      }
+      if (size == values.length) {
+        values = Arrays.copyOf(values, size * 2);
+      }
+      values[size++] = value;
+    }
+
+    int[] toArray() {
+      return Arrays.copyOf(values, size);
+    }
+  }
+}
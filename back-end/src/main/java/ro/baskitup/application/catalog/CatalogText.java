@@ -0,0 +1,49 @@
+package ro.baskitup.application.catalog;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Text normalization shared by slugs and the catalog indexes, so "Crăciun" and "craciun"
+ * always end up as the same key.
+ */
+public final class CatalogText {
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+  private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+
+  private CatalogText() {
+  }
+
+  /**
+   * Strips diacritics and lowercases the input; {@code null} becomes an empty string.
+   */
+  public static String fold(String input) {
+    if (input == null || input.isEmpty()) {
+      return "";
+    }
+    String normalized = Normalizer.normalize(input, Normalizer.Form.NFD);
+    return DIACRITICS.matcher(normalized).replaceAll("").toLowerCase(Locale.ROOT);
+  }
+
+  public static String slugify(String input) {
+    String collapsed = NON_ALNUM.matcher(fold(input)).replaceAll("-");
+    collapsed = collapsed.replaceAll("-{2,}", "-");
+    return collapsed.replaceAll("(^-|-$)", "");
+  }
+
+  /**
+   * Splits folded text into alphanumeric tokens, in order of appearance.
+   */
+  public static List<String> tokens(String input) {
+    List<String> out = new ArrayList<>();
+    for (String token : NON_ALNUM.split(fold(input))) {
+      if (!token.isEmpty()) {
+        out.add(token);
+      }
+    }
+    return out;
+  }
+}
@@ -0,0 +1,228 @@
+package ro.baskitup.application.catalog;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "More like this" by tag and prompt-term overlap. Each basket gets a MinHash signature of its
+ * features (folded tags and prompt tokens) and is filed under one LSH bucket per band of that
+ * signature; baskets sharing a bucket are candidates and are ranked by the exact Jaccard
+ * similarity of their features. With {@value #BANDS} bands of {@value #ROWS} rows, a pair at 0.5
+ * similarity collides with probability about 0.93, and one at 0.6 about 0.99. A lookup reads at
+ * most {@value #MAX_CANDIDATES} candidates, whatever the catalog size; the index is patched on
+ * every catalog change.
+ */
+@Component
+public class SimilarBaskets implements CatalogListener {
+  public static final int MAX_SIMILAR = 20;
+  private static final int BANDS = 20;
+  private static final int ROWS = 3;
+  private static final int HASHES = BANDS * ROWS;
+  private static final int MAX_CANDIDATES = 200;
+  private static final double MIN_SIMILARITY = 0.2;
+  private static final long[] SEEDS = new SplittableRandom(0x5EEDL).longs(HASHES).toArray();
+
+  private final CatalogIndex catalog;
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<UUID, Indexed> indexed = new HashMap<>();
+  private final Map<Long, Set<UUID>> buckets = new HashMap<>();
+
+  public SimilarBaskets(CatalogIndex catalog) {
+    this.catalog = catalog;
+  }
+
+  public List<BasketSummaryView> similar(String slug, int limit) {
+    CatalogSnapshot snapshot = catalog.snapshot();
+    BasketSummaryView basket = snapshot.findBySlug(slug);
+    if (basket == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Coșul cerut nu a fost găsit");
+    }
+    List<Candidate> ranked = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      Indexed self = indexed.get(basket.id());
+      if (self == null) {
+        return List.of();
+      }
+      int[] signature = self.signature();
+      Set<UUID> seen = new LinkedHashSet<>();
+      for (int band = 0; band < BANDS && seen.size() < MAX_CANDIDATES; band++) {
+        Set<UUID> bucket = buckets.get(bandKey(signature, band));
+        if (bucket == null) {
+          continue;
+        }
+        for (UUID other : bucket) {
+          if (!other.equals(basket.id()) && seen.add(other) && seen.size() >= MAX_CANDIDATES) {
+            break;
+          }
+        }
+      }
+      for (UUID other : seen) {
+        double similarity = jaccard(self.features(), indexed.get(other).features());
+        if (similarity >= MIN_SIMILARITY) {
+          ranked.add(new Candidate(other, similarity));
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    ranked.sort(Comparator.comparingDouble(Candidate::similarity).reversed());
+    List<BasketSummaryView> out = new ArrayList<>(Math.min(limit, ranked.size()));
+    for (Candidate candidate : ranked) {
+      BasketSummaryView view = snapshot.find(candidate.id());
+      if (view != null) {
+        out.add(view);
+        if (out.size() == limit) {
+          break;
+        }
+      }
+    }
+    return out;
+  }
+
+  @Override
+  public void catalogLoaded(CatalogSnapshot snapshot) {
+    lock.writeLock().lock();
+    try {
+      indexed.clear();
+      buckets.clear();
+      for (BasketSummaryView view : snapshot.entries()) {
+        add(view);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void basketChanged(BasketSummaryView previous, BasketSummaryView current, CatalogSnapshot snapshot) {
+    lock.writeLock().lock();
+    try {
+      if (previous != null) {
+        remove(previous.id());
+      }
+      if (current != null) {
+        add(current);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private void add(BasketSummaryView view) {
+    int[] features = features(view);
+    if (features.length == 0) {
+      return;
+    }
+    int[] signature = signature(features);
+    indexed.put(view.id(), new Indexed(features, signature));
+    for (int band = 0; band < BANDS; band++) {
+      buckets.computeIfAbsent(bandKey(signature, band), key -> new LinkedHashSet<>()).add(view.id());
+    }
+  }
+
+  private void remove(UUID id) {
+    Indexed removed = indexed.remove(id);
+    if (removed == null) {
+      return;
+    }
+    int[] signature = removed.signature();
+    for (int band = 0; band < BANDS; band++) {
+      long key = bandKey(signature, band);
+      Set<UUID> bucket = buckets.get(key);
+      if (bucket != null && bucket.remove(id) && bucket.isEmpty()) {
+        buckets.remove(key);
+      }
+    }
+  }
+
+  /**
+   * MinHash signature of a non-empty feature set.
+   */
+  private static int[] signature(int[] features) {
+    int[] signature = new int[HASHES];
+    Arrays.fill(signature, Integer.MAX_VALUE);
+    for (int feature : features) {
+      for (int i = 0; i < HASHES; i++) {
+        int hash = (int) (mix(feature ^ SEEDS[i]) >>> 33);
+        if (hash < signature[i]) {
+          signature[i] = hash;
+        }
+      }
+    }
+    return signature;
+  }
+
+  private static int[] features(BasketSummaryView view) {
+    Set<String> features = new LinkedHashSet<>();
+    for (String tag : view.tags()) {
+      String folded = CatalogText.fold(tag.trim());
+      if (!folded.isEmpty()) {
+        features.add("t:" + folded);
+      }
+    }
+    for (String token : CatalogText.tokens(view.prompt())) {
+      if (token.length() > 2) {
+        features.add("p:" + token);
+      }
+    }
+    return features.stream().mapToInt(String::hashCode).distinct().sorted().toArray();
+  }
+
+  private static long bandKey(int[] signature, int band) {
+    long hash = band;
+    for (int row = band * ROWS; row < (band + 1) * ROWS; row++) {
+      hash = mix(hash * 31 + signature[row]);
+    }
+    return hash;
+  }
+
+  /**
+   * Jaccard similarity of two sorted feature sets.
+   */
+  private static double jaccard(int[] a, int[] b) {
+    int i = 0;
+    int j = 0;
+    int shared = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        shared++;
+        i++;
+        j++;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return (double) shared / (a.length + b.length - shared);
+  }
+
+  /**
+   * SplitMix64 finalizer.
+   */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  private record Indexed(int[] features, int[] signature) {}
+
+  private record Candidate(UUID id, double similarity) {}
+}
@@ -0,0 +1,219 @@
+package ro.baskitup.application.promotions;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ro.baskitup.adapters.persistence.PromotionEntity;
+import ro.baskitup.adapters.persistence.PromotionRepository;
+import ro.baskitup.application.catalog.CatalogText;
+import ro.baskitup.domain.model.Money;
+import ro.baskitup.domain.model.PromotionType;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies promotions to cart lines. Active rules are compiled into a plan indexed by basket id,
+ * category slug and folded tag (plus the catalog-wide ones), so pricing a line only looks at the
+ * rules that can match it, however many others exist. The plan is rebuilt on first use after a
+ * promotion changes; start and end dates are checked at evaluation time. Promotions do not stack:
+ * each basket gets the single largest discount that applies to it.
+ */
+@Component
+public class PromotionEngine {
+  private static final Rule[] NONE = new Rule[0];
+
+  private final PromotionRepository promotions;
+  private volatile Plan plan;
+  private long generation;
+
+  public PromotionEngine(PromotionRepository promotions) {
+    this.promotions = promotions;
+  }
+
+  /**
+   * One discount per basket that has an applicable promotion, in the order of {@code items}.
+   */
+  public List<Discount> apply(List<Item> items, Instant now) {
+    Plan current = plan();
+    if (current.isEmpty()) {
+      return List.of();
+    }
+    long at = now.toEpochMilli();
+    List<Discount> discounts = new ArrayList<>();
+    for (Item item : items) {
+      Rule best = null;
+      Money bestAmount = Money.ZERO;
+      for (Rule rule : current.candidates(item)) {
+        if (!rule.activeAt(at)) {
+          continue;
+        }
+        Money amount = rule.discount(item.unitPrice(), item.quantity());
+        if (amount.compareTo(bestAmount) > 0) {
+          best = rule;
+          bestAmount = amount;
+        }
+      }
+      if (best != null) {
+        discounts.add(new Discount(best.id(), best.label(), item.basketId(), bestAmount));
+      }
+    }
+    return discounts;
+  }
+
+  /**
+   * Recompiles the plan once the surrounding transaction commits.
+   */
+  public void changed() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        invalidate();
+      }
+    });
+  }
+
+  private synchronized void invalidate() {
+    generation++;
+    plan = null;
+  }
+
+  private Plan plan() {
+    Plan current = plan;
+    if (current != null) {
+      return current;
+    }
+    long compiling;
+    synchronized (this) {
+      if (plan != null) {
+        return plan;
+      }
+      compiling = generation;
+    }
+    Plan compiled = Plan.compile(promotions.findByActiveTrue());
+    synchronized (this) {
+      // A change committed while compiling leaves the plan unset, so the next estimate recompiles.
+      if (generation == compiling) {
+        plan = compiled;
+      }
+    }
+    return compiled;
+  }
+
+  public record Item(UUID basketId, String category, List<String> tags, Money unitPrice, int quantity) {}
+
+  public record Discount(UUID promotionId, String label, UUID basketId, Money amount) {}
+
+  private record Plan(
+      Map<UUID, Rule[]> byBasket,
+      Map<String, Rule[]> byCategory,
+      Map<String, Rule[]> byTag,
+      Rule[] everywhere
+  ) {
+    static Plan compile(List<PromotionEntity> entities) {
+      Map<UUID, List<Rule>> byBasket = new HashMap<>();
+      Map<String, List<Rule>> byCategory = new HashMap<>();
+      Map<String, List<Rule>> byTag = new HashMap<>();
+      List<Rule> everywhere = new ArrayList<>();
+      for (PromotionEntity entity : entities) {
+        Rule rule = Rule.of(entity);
+        String target = entity.getTarget();
+        switch (entity.getScope()) {
+          case BASKET -> byBasket.computeIfAbsent(UUID.fromString(target), key -> new ArrayList<>()).add(rule);
+          case CATEGORY -> byCategory.computeIfAbsent(target, key -> new ArrayList<>()).add(rule);
+          case TAG -> byTag.computeIfAbsent(target, key -> new ArrayList<>()).add(rule);
+          case ALL -> everywhere.add(rule);
+        }
+      }
+      return new Plan(freeze(byBasket), freeze(byCategory), freeze(byTag), everywhere.toArray(NONE));
+    }
+
+    boolean isEmpty() {
+      return byBasket.isEmpty() && byCategory.isEmpty() && byTag.isEmpty() && everywhere.length == 0;
+    }
+
+    List<Rule> candidates(Item item) {
+      List<Rule> out = new ArrayList<>();
+      add(out, byBasket.get(item.basketId()));
+      if (!byCategory.isEmpty() && item.category() != null) {
+        add(out, byCategory.get(CatalogText.slugify(item.category())));
+      }
+      if (!byTag.isEmpty()) {
+        for (String tag : item.tags()) {
+          add(out, byTag.get(CatalogText.fold(tag.trim())));
+        }
+      }
+      add(out, everywhere);
+      return out;
+    }
+
+    private static void add(List<Rule> out, Rule[] rules) {
+      if (rules != null) {
+        for (Rule rule : rules) {
+          out.add(rule);
+        }
+      }
+    }
+
+    private static <K> Map<K, Rule[]> freeze(Map<K, List<Rule>> rules) {
+      Map<K, Rule[]> out = new HashMap<>(rules.size() * 2);
+      rules.forEach((key, list) -> out.put(key, list.toArray(NONE)));
+      return out;
+    }
+  }
+
+  private record Rule(
+      UUID id,
+      String label,
+      PromotionType type,
+      BigDecimal rate,
+      Money amount,
+      int buy,
+      int free,
+      long startsAt,
+      long endsAt
+  ) {
+    static Rule of(PromotionEntity entity) {
+      BigDecimal percent = entity.getPercent();
+      return new Rule(
+          entity.getId(),
+          entity.getLabel(),
+          entity.getType(),
+          percent == null ? BigDecimal.ZERO : percent.movePointLeft(2),
+          entity.getAmount() == null ? Money.ZERO : entity.getAmount(),
+          entity.getBuyQuantity() == null ? 0 : entity.getBuyQuantity(),
+          entity.getFreeQuantity() == null ? 0 : entity.getFreeQuantity(),
+          entity.getStartsAt() == null ? Long.MIN_VALUE : entity.getStartsAt().toEpochMilli(),
+          entity.getEndsAt() == null ? Long.MAX_VALUE : entity.getEndsAt().toEpochMilli()
+      );
+    }
+
+    boolean activeAt(long at) {
+      return at >= startsAt && at < endsAt;
+    }
+
+    Money discount(Money unitPrice, int quantity) {
+      Money lineTotal = unitPrice.times(quantity);
+      return switch (type) {
+        case PERCENTAGE -> lineTotal.times(rate, RoundingMode.HALF_UP);
+        case FIXED -> {
+          Money off = amount.times(quantity);
+          yield off.compareTo(lineTotal) > 0 ? lineTotal : off;
+        }
+        case BUY_X_GET_Y -> buy + free <= 0
+            ? Money.ZERO
+            : unitPrice.times(quantity / (buy + free) * free);
+      };
+    }
+  }
+}
@@ -0,0 +1,26 @@
+package ro.baskitup.application.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ro.baskitup.adapters.persistence.BasketExportCursor;
+import ro.baskitup.adapters.persistence.BasketExportRow;
+
+import java.util.function.Consumer;
+
+/**
+ * Full catalog dumps for feeds and backups. Rows are pushed to the sink as they are read, so the
+ * caller decides where they go (usually straight to the response stream).
+ */
+@Service
+public class BasketExportService {
+  private final BasketExportCursor cursor;
+
+  public BasketExportService(BasketExportCursor cursor) {
+    this.cursor = cursor;
+  }
+
+  @Transactional(readOnly = true)
+  public void export(Consumer<BasketExportRow> sink) {
+    cursor.forEach(sink);
+  }
+}
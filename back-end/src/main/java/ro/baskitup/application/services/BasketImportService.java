@@ -0,0 +1,172 @@
+package ro.baskitup.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.BasketBulkWriter;
+import ro.baskitup.adapters.persistence.BasketEntity;
+import ro.baskitup.adapters.persistence.BasketRepository;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.services.BasketService.BasketRequest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports a stream of baskets in fixed-size batches, each batch in its own transaction. Only one
+ * batch is held in memory at a time, and a failing row is reported instead of stopping the run.
+ */
+@Service
+public class BasketImportService {
+  private static final Logger log = LoggerFactory.getLogger(BasketImportService.class);
+  private static final int MAX_REPORTED_ERRORS = 500;
+
+  private final BasketRepository baskets;
+  private final BasketBulkWriter writer;
+  private final BasketService basketService;
+  private final SlugAllocator slugs;
+  private final CatalogIndex catalog;
+  private final TransactionTemplate transactions;
+  private final int batchSize;
+
+  public BasketImportService(
+      BasketRepository baskets,
+      BasketBulkWriter writer,
+      BasketService basketService,
+      SlugAllocator slugs,
+      CatalogIndex catalog,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.catalog.import-batch-size:500}") int batchSize
+  ) {
+    this.baskets = baskets;
+    this.writer = writer;
+    this.basketService = basketService;
+    this.slugs = slugs;
+    this.catalog = catalog;
+    this.transactions = new TransactionTemplate(transactionManager);
+    this.batchSize = batchSize;
+  }
+
+  public ImportReport importAll(Iterator<ImportRow> rows) {
+    Progress progress = new Progress();
+    List<ImportRow> batch = new ArrayList<>(batchSize);
+    try {
+      while (rows.hasNext()) {
+        ImportRow row = rows.next();
+        if (row.error() != null) {
+          progress.fail(row.line(), row.error());
+          continue;
+        }
+        batch.add(row);
+        if (batch.size() >= batchSize) {
+          flush(batch, progress);
+          batch.clear();
+        }
+      }
+      flush(batch, progress);
+    } finally {
+      if (progress.imported > 0) {
+        catalog.invalidate();
+      }
+    }
+    log.info("Basket import finished: {} imported, {} failed", progress.imported, progress.failed);
+    return new ImportReport(progress.imported, progress.failed, progress.errors);
+  }
+
+  private void flush(List<ImportRow> batch, Progress progress) {
+    if (batch.isEmpty()) {
+      return;
+    }
+    try {
+      transactions.executeWithoutResult(status -> writer.insert(toEntities(batch)));
+      progress.imported += batch.size();
+    } catch (DataAccessException ex) {
+      log.debug("Import batch ending at line {} failed, retrying row by row", batch.get(batch.size() - 1).line(), ex);
+      for (ImportRow row : batch) {
+        try {
+          basketService.create(row.request());
+          progress.imported++;
+        } catch (ResponseStatusException rowEx) {
+          progress.fail(row.line(), rowEx.getReason());
+        } catch (RuntimeException rowEx) {
+          progress.fail(row.line(), rowEx.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks all base slugs of the batch in one query; a base that is already taken (or repeated
+   * inside the batch) has its slug family loaded once and its suffixes handed out in memory.
+   */
+  private List<BasketEntity> toEntities(List<ImportRow> batch) {
+    List<String> bases = batch.stream()
+        .map(row -> SlugAllocator.baseSlug(row.request().slug(), row.request().title()))
+        .toList();
+    Set<String> taken = new HashSet<>(baskets.findExistingSlugs(new HashSet<>(bases)));
+    Set<String> assigned = new HashSet<>();
+    Map<String, SlugAllocator.Family> families = new HashMap<>();
+    List<BasketEntity> entities = new ArrayList<>(batch.size());
+    for (int i = 0; i < batch.size(); i++) {
+      BasketRequest request = batch.get(i).request();
+      String base = bases.get(i);
+      String slug = taken.contains(base) || assigned.contains(base)
+          ? families.computeIfAbsent(base, slugs::family).allocate(assigned)
+          : base;
+      assigned.add(slug);
+
+      BasketEntity basket = new BasketEntity();
+      basket.setSlug(slug);
+      basket.setTitle(request.title());
+      basket.setCategory(request.category());
+      basket.setPrompt(request.prompt());
+      basket.setTags(BasketService.normalizeTags(request.tags()));
+      basket.setPrice(request.price());
+      basket.setStock(request.stock());
+      basket.setDescription(request.description());
+      basket.setHeroImage(request.heroImage());
+      entities.add(basket);
+    }
+    return entities;
+  }
+
+  /**
+   * One parsed input row: either a request or the reason it could not be read/validated.
+   */
+  public record ImportRow(long line, BasketRequest request, String error) {
+    public static ImportRow valid(long line, BasketRequest request) {
+      return new ImportRow(line, request, null);
+    }
+
+    public static ImportRow invalid(long line, String error) {
+      return new ImportRow(line, null, error);
+    }
+  }
+
+  public record RowError(long line, String message) {}
+
+  public record ImportReport(int imported, int failed, List<RowError> errors) {}
+
+  private static final class Progress {
+    private final List<RowError> errors = new ArrayList<>();
+    private int imported;
+    private int failed;
+
+    void fail(long line, String message) {
+      failed++;
+      if (errors.size() < MAX_REPORTED_ERRORS) {
+        errors.add(new RowError(line, message));
+      }
+    }
+  }
+}
@@ -2,9 +2,12 @@ package ro.baskitup.application.services;
 
 import org.springframework.stereotype.Component;
 import ro.baskitup.adapters.persistence.BasketEntity;
+import ro.baskitup.adapters.persistence.BasketSummaryRow;
 import ro.baskitup.domain.view.BasketDetailView;
 import ro.baskitup.domain.view.BasketSummaryView;
 
+import java.util.List;
+
 @Component
 public class BasketMapper {
 
@@ -15,7 +18,7 @@ public class BasketMapper {
         entity.getTitle(),
         entity.getCategory(),
         entity.getPrompt(),
-        entity.getTags(),
+        List.copyOf(entity.getTags()),
         entity.getPrice(),
         entity.getStock(),
         entity.getHeroImage(),
@@ -24,6 +27,22 @@ public class BasketMapper {
     );
   }
 
+  public BasketSummaryView toSummary(BasketSummaryRow row, List<String> tags) {
+    return new BasketSummaryView(
+        row.id(),
+        row.slug(),
+        row.title(),
+        row.category(),
+        row.prompt(),
+        List.copyOf(tags),
+        row.price(),
+        row.stock(),
+        row.heroImage(),
+        row.createdAt(),
+        row.updatedAt()
+    );
+  }
+
   public BasketDetailView toDetail(BasketEntity entity) {
     return new BasketDetailView(
         entity.getId(),
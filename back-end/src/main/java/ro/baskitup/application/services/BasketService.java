@@ -1,45 +1,90 @@
 package ro.baskitup.application.services;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 import ro.baskitup.adapters.persistence.BasketEntity;
 import ro.baskitup.adapters.persistence.BasketRepository;
+import ro.baskitup.application.catalog.CatalogCursor;
+import ro.baskitup.application.catalog.CatalogFacets;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogSnapshot;
 import ro.baskitup.domain.view.BasketDetailView;
+import ro.baskitup.domain.view.BasketPageView;
 import ro.baskitup.domain.view.BasketSummaryView;
 
 import java.math.BigDecimal;
-import java.text.Normalizer;
-import java.util.Comparator;
+import java.util.BitSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
 public class BasketService {
-  private static final Pattern NON_ALNUM = Pattern.compile("[^a-z0-9]+");
+  private static final Logger log = LoggerFactory.getLogger(BasketService.class);
+  private static final int MAX_SLUG_ATTEMPTS = 3;
 
   private final BasketRepository baskets;
   private final BasketMapper mapper;
-
-  public BasketService(BasketRepository baskets, BasketMapper mapper) {
+  private final CatalogIndex catalog;
+  private final CatalogFacets facets;
+  private final SlugAllocator slugs;
+  private final TransactionTemplate transactions;
+
+  public BasketService(
+      BasketRepository baskets,
+      BasketMapper mapper,
+      CatalogIndex catalog,
+      CatalogFacets facets,
+      SlugAllocator slugs,
+      PlatformTransactionManager transactionManager
+  ) {
     this.baskets = baskets;
     this.mapper = mapper;
+    this.catalog = catalog;
+    this.facets = facets;
+    this.slugs = slugs;
+    this.transactions = new TransactionTemplate(transactionManager);
   }
 
-  @Transactional(readOnly = true)
+  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
   public List<BasketSummaryView> list(String category, String search) {
-    return baskets.findAll().stream()
-        .filter(b -> filterByCategory(b, category))
-        .filter(b -> filterBySearch(b, search))
-        .sorted(Comparator.comparing(BasketEntity::getCreatedAt).reversed())
-        .map(mapper::toSummary)
-        .toList();
+    return catalog.snapshot().query(category, search);
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+  public BasketPageView page(String category, String search, String tag, String priceBand, String cursor, int limit) {
+    CatalogCursor after = null;
+    if (StringUtils.hasText(cursor)) {
+      try {
+        after = CatalogCursor.decode(cursor);
+      } catch (IllegalArgumentException ex) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursorul de paginare este invalid");
+      }
+    }
+    CatalogSnapshot snapshot = catalog.snapshot();
+    BitSet matches = snapshot.match(category, search);
+    facets.narrow(snapshot, matches, tag, priceBand);
+    CatalogSnapshot.Page page = snapshot.page(matches, after, limit);
+    return new BasketPageView(
+        page.items(),
+        page.next() == null ? null : page.next().encode(),
+        facets.count(snapshot, matches)
+    );
   }
 
   @Transactional(readOnly = true)
@@ -49,29 +94,51 @@ public class BasketService {
     return mapper.toDetail(basket);
   }
 
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public BasketDetailView create(BasketRequest request) {
-    BasketEntity basket = new BasketEntity();
-    apply(basket, request, null);
-    baskets.save(basket);
-    return mapper.toDetail(basket);
+    return withSlugRetry(() -> {
+      BasketEntity basket = new BasketEntity();
+      apply(basket, request, null);
+      baskets.save(basket);
+      catalog.upserted(basket);
+      return mapper.toDetail(basket);
+    });
   }
 
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public BasketDetailView update(UUID id, BasketRequest request) {
-    BasketEntity basket = baskets.findById(id)
-        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Coșul nu există"));
-    apply(basket, request, id);
-    return toDetail(basket);
+    return withSlugRetry(() -> {
+      BasketEntity basket = baskets.findById(id)
+          .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Coșul nu există"));
+      // Unchanged stock is not written (dynamic update), so a sale flushed meanwhile is kept.
+      boolean stockWritten = !Objects.equals(basket.getStock(), request.stock());
+      apply(basket, request, id);
+      catalog.upserted(basket, stockWritten);
+      return toDetail(basket);
+    });
   }
 
   public void delete(UUID id) {
     baskets.deleteById(id);
+    catalog.removed(id);
   }
 
   private void apply(BasketEntity basket, BasketRequest request, UUID currentId) {
     basket.setTitle(request.title());
     basket.setCategory(request.category());
     basket.setPrompt(request.prompt());
-    List<String> rawTags = Optional.ofNullable(request.tags()).orElse(List.of());
+    basket.setTags(normalizeTags(request.tags()));
+    basket.setPrice(request.price());
+    basket.setStock(request.stock());
+    basket.setDescription(request.description());
+    basket.setHeroImage(request.heroImage());
+
+    String slug = slugs.allocate(SlugAllocator.baseSlug(request.slug(), request.title()), currentId, Set.of());
+    basket.setSlug(slug);
+  }
+
+  static List<String> normalizeTags(List<String> tags) {
+    List<String> rawTags = Optional.ofNullable(tags).orElse(List.of());
     List<String> uniqueTags = new java.util.ArrayList<>();
     java.util.Set<String> seenKeys = new java.util.LinkedHashSet<>();
     for (String tag : rawTags) {
@@ -84,57 +151,40 @@ public class BasketService {
         uniqueTags.add(trimmed);
       }
     }
-    basket.setTags(uniqueTags);
-    basket.setPrice(request.price());
-    basket.setStock(request.stock());
-    basket.setDescription(request.description());
-    basket.setHeroImage(request.heroImage());
-
-    String desiredSlug = StringUtils.hasText(request.slug()) ? request.slug() : request.title();
-    String slug = generateUniqueSlug(desiredSlug, currentId);
-    basket.setSlug(slug);
+    return uniqueTags;
   }
 
-  private String generateUniqueSlug(String source, UUID currentId) {
-    String base = slugify(source);
-    if (!StringUtils.hasText(base)) {
-      base = "basket";
-    }
-    String candidate = base;
-    int suffix = 1;
-    while (true) {
-      Optional<BasketEntity> existing = baskets.findBySlugIgnoreCase(candidate);
-      if (existing.isEmpty() || (currentId != null && existing.get().getId().equals(currentId))) {
-        return candidate;
-      }
-      candidate = base + "-" + suffix++;
-    }
-  }
 
-  private static String slugify(String input) {
-    String normalized = Normalizer.normalize(input == null ? "" : input, Normalizer.Form.NFD)
-        .replaceAll("\\p{InCombiningDiacriticalMarks}+", "");
-    String lower = normalized.toLowerCase(Locale.ROOT);
-    String collapsed = NON_ALNUM.matcher(lower).replaceAll("-");
-    collapsed = collapsed.replaceAll("-{2,}", "-");
-    return collapsed.replaceAll("(^-|-$)", "");
-  }
-
-  private boolean filterByCategory(BasketEntity basket, String category) {
-    if (!StringUtils.hasText(category) || category.equalsIgnoreCase("all")) {
-      return true;
+  /**
+   * Runs each attempt in its own transaction: two writers can still pick the same free slug, in
+   * which case the unique constraint rejects the later commit and it allocates again. Other
+   * integrity violations are not about the slug and are rethrown as they are.
+   */
+  private BasketDetailView withSlugRetry(Supplier<BasketDetailView> write) {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        return transactions.execute(status -> write.get());
+      } catch (DataIntegrityViolationException ex) {
+        if (!isSlugCollision(ex)) {
+          throw ex;
+        }
+        if (attempt >= MAX_SLUG_ATTEMPTS) {
+          throw new ResponseStatusException(HttpStatus.CONFLICT, "Slug-ul este deja folosit");
+        }
+        log.debug("Slug collision on attempt {}, allocating again", attempt);
+      }
     }
-    return slugify(basket.getCategory()).equalsIgnoreCase(category);
   }
 
-  private boolean filterBySearch(BasketEntity basket, String search) {
-    if (!StringUtils.hasText(search)) {
-      return true;
+  static boolean isSlugCollision(DataIntegrityViolationException ex) {
+    for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+      if (cause instanceof ConstraintViolationException violation) {
+        String constraint = violation.getConstraintName();
+        return constraint != null
+            && constraint.toLowerCase(Locale.ROOT).contains(BasketEntity.SLUG_CONSTRAINT);
+      }
     }
-    String needle = search.toLowerCase(Locale.ROOT);
-    return basket.getTitle().toLowerCase(Locale.ROOT).contains(needle)
-        || basket.getPrompt().toLowerCase(Locale.ROOT).contains(needle)
-        || basket.getTags().stream().anyMatch(tag -> tag.toLowerCase(Locale.ROOT).contains(needle));
+    return false;
   }
 
   private BasketSummaryView toSummary(BasketEntity entity) {
@@ -2,9 +2,14 @@ package ro.baskitup.application.services;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -14,19 +19,36 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.server.ResponseStatusException;
 import ro.baskitup.adapters.persistence.BasketEntity;
 import ro.baskitup.adapters.persistence.BasketRepository;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogSnapshot;
+import ro.baskitup.application.promotions.PromotionEngine;
+import ro.baskitup.domain.model.Money;
+import ro.baskitup.domain.view.BasketSummaryView;
 
 @Service
 @Transactional(readOnly = true)
 public class CartService {
 
   private final BasketRepository baskets;
+  private final CatalogIndex catalog;
+  private final StockLedger stock;
+  private final PromotionEngine promotions;
   private final BigDecimal vatRate;
 
-  private static final BigDecimal STANDARD_SHIPPING = BigDecimal.valueOf(25);
-  private static final BigDecimal EXPRESS_SHIPPING = BigDecimal.valueOf(35);
+  public static final Money STANDARD_SHIPPING = Money.ofMinor(2_500);
+  public static final Money EXPRESS_SHIPPING = Money.ofMinor(3_500);
 
-  public CartService(BasketRepository baskets, @Value("${app.vat-rate:0.19}") BigDecimal vatRate) {
+  public CartService(
+      BasketRepository baskets,
+      CatalogIndex catalog,
+      StockLedger stock,
+      PromotionEngine promotions,
+      @Value("${app.vat-rate:0.19}") BigDecimal vatRate
+  ) {
     this.baskets = baskets;
+    this.catalog = catalog;
+    this.stock = stock;
+    this.promotions = promotions;
     this.vatRate = vatRate;
   }
 
@@ -35,38 +57,95 @@ public class CartService {
       throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Coșul este gol");
     }
 
-    List<EstimateLine> lines = items.stream()
-        .map(req -> {
-          BasketEntity basket = baskets.findById(req.basketId())
-              .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Coșul nu există"));
-          if (req.quantity() <= 0) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cantitatea trebuie să fie pozitivă");
-          }
-          if (basket.getStock() < req.quantity()) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
-                "Stoc insuficient pentru " + basket.getTitle());
-          }
-          BigDecimal lineTotal = basket.getPrice().multiply(BigDecimal.valueOf(req.quantity()));
-          return new EstimateLine(
-              basket.getId(),
-              basket.getSlug(),
-              basket.getTitle(),
-              basket.getPrice(),
-              req.quantity(),
-              lineTotal
-          );
-        })
-        .collect(Collectors.toList());
-
-    BigDecimal subtotal = lines.stream()
-        .map(EstimateLine::lineTotal)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    BigDecimal shipping = method == ShippingMethod.EXPRESS ? EXPRESS_SHIPPING : STANDARD_SHIPPING;
-    BigDecimal vat = subtotal.add(shipping).multiply(vatRate).setScale(2, RoundingMode.HALF_UP);
-    BigDecimal total = subtotal.add(shipping).add(vat).setScale(2, RoundingMode.HALF_UP);
-
-    return new EstimateResult(lines, subtotal, shipping, vat, total, vatRate);
+    // One pass to validate quantities and add up what each basket must cover.
+    Map<UUID, Integer> required = new LinkedHashMap<>();
+    for (CartItemRequest req : items) {
+      if (req.quantity() <= 0) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cantitatea trebuie să fie pozitivă");
+      }
+      try {
+        required.merge(req.basketId(), req.quantity(), Math::addExact);
+      } catch (ArithmeticException ex) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cantitatea este prea mare");
+      }
+    }
+    Map<UUID, PricedBasket> priced = resolve(required.keySet());
+    for (Map.Entry<UUID, Integer> entry : required.entrySet()) {
+      PricedBasket basket = priced.get(entry.getKey());
+      if (basket == null) {
+        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Coșul nu există");
+      }
+      if (basket.stock() < entry.getValue()) {
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+            "Stoc insuficient pentru " + basket.title());
+      }
+    }
+
+    List<EstimateLine> lines = new ArrayList<>(items.size());
+    for (CartItemRequest req : items) {
+      PricedBasket basket = priced.get(req.basketId());
+      lines.add(new EstimateLine(
+          basket.id(),
+          basket.slug(),
+          basket.title(),
+          basket.price(),
+          req.quantity(),
+          basket.price().times(req.quantity())
+      ));
+    }
+
+    Money subtotal = Money.ZERO;
+    for (EstimateLine line : lines) {
+      subtotal = subtotal.plus(line.lineTotal());
+    }
+
+    // Promotions see each basket once, with its total quantity, so buy-X-get-Y spans repeated lines.
+    List<PromotionEngine.Item> promotable = new ArrayList<>(required.size());
+    required.forEach((id, quantity) -> {
+      PricedBasket basket = priced.get(id);
+      promotable.add(new PromotionEngine.Item(id, basket.category(), basket.tags(), basket.price(), quantity));
+    });
+    List<PromotionEngine.Discount> discounts = promotions.apply(promotable, Instant.now());
+    Money discount = Money.ZERO;
+    for (PromotionEngine.Discount applied : discounts) {
+      discount = discount.plus(applied.amount());
+    }
+
+    Money shipping = method == ShippingMethod.EXPRESS ? EXPRESS_SHIPPING : STANDARD_SHIPPING;
+    Money taxable = subtotal.minus(discount).plus(shipping);
+    Money vat = taxable.times(vatRate, RoundingMode.HALF_UP);
+    Money total = taxable.plus(vat);
+
+    return new EstimateResult(lines, discounts, subtotal, discount, shipping, vat, total, vatRate);
+  }
+
+  /**
+   * Price and stock for every id, read from the catalog snapshot and the stock ledger; only ids
+   * the snapshot does not know yet (a basket created moments ago) go to the database, in a single
+   * query.
+   */
+  private Map<UUID, PricedBasket> resolve(Set<UUID> ids) {
+    CatalogSnapshot snapshot = catalog.snapshot();
+    Map<UUID, PricedBasket> priced = new HashMap<>(ids.size() * 2);
+    List<UUID> missing = new ArrayList<>();
+    for (UUID id : ids) {
+      BasketSummaryView view = id == null ? null : snapshot.find(id);
+      if (view != null) {
+        priced.put(id, new PricedBasket(
+            view.id(), view.slug(), view.title(), view.category(), view.tags(), Money.of(view.price()),
+            stock.available(id, view.stock())));
+      } else if (id != null) {
+        missing.add(id);
+      }
+    }
+    if (!missing.isEmpty()) {
+      for (BasketEntity basket : baskets.findAllById(missing)) {
+        priced.put(basket.getId(), new PricedBasket(
+            basket.getId(), basket.getSlug(), basket.getTitle(), basket.getCategory(), basket.getTags(),
+            Money.of(basket.getPrice()), stock.available(basket.getId(), basket.getStock())));
+      }
+    }
+    return priced;
   }
 
   public enum ShippingMethod {
@@ -83,21 +162,37 @@ public class CartService {
 
   public record CartItemRequest(UUID basketId, int quantity) {}
 
+  private record PricedBasket(
+      UUID id,
+      String slug,
+      String title,
+      String category,
+      List<String> tags,
+      Money price,
+      int stock
+  ) {}
+
   public record EstimateLine(
       UUID basketId,
       String slug,
       String title,
-      BigDecimal unitPrice,
+      Money unitPrice,
       int quantity,
-      BigDecimal lineTotal
+      Money lineTotal
   ) {}
 
+  /**
+   * {@code subtotal} is before promotions; {@code discount} is the sum of {@code discounts} and is
+   * taken off before VAT.
+   */
   public record EstimateResult(
       List<EstimateLine> lines,
-      BigDecimal subtotal,
-      BigDecimal shipping,
-      BigDecimal vat,
-      BigDecimal total,
+      List<PromotionEngine.Discount> discounts,
+      Money subtotal,
+      Money discount,
+      Money shipping,
+      Money vat,
+      Money total,
       BigDecimal vatRate
   ) {}
 }
@@ -0,0 +1,242 @@
+package ro.baskitup.application.services;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.domain.model.Order;
+import ro.baskitup.domain.model.OrderItem;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Optional group commit for checkout ({@code app.checkout.pipeline.enabled}). Priced and reserved
+ * orders are queued, and a single writer inserts them in groups of up to
+ * {@code max-batch} orders, waiting at most {@code max-wait} for a group to fill, in one
+ * transaction per group. If a group fails, its orders are retried one transaction each, so only
+ * the order that cannot be stored fails. Each caller's future completes when its order is
+ * committed or has failed; a full queue turns new checkouts away instead of piling them up.
+ *
+ * <p>Only the writer thread ever commits. On shutdown it stops taking new orders, stores what is
+ * already queued and then exits; anything it could not settle is failed rather than left waiting.
+ */
+@Component
+public class CheckoutPipeline {
+  private static final Logger log = LoggerFactory.getLogger(CheckoutPipeline.class);
+  private static final long IDLE_POLL_MILLIS = 100;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final TransactionTemplate transactions;
+  private final boolean enabled;
+  private final int maxBatch;
+  private final long maxWaitNanos;
+  private final BlockingQueue<Pending> queue;
+  private final Object lifecycle = new Object();
+  private final Thread writer;
+  private volatile boolean running = true;
+
+  public CheckoutPipeline(
+      PlatformTransactionManager transactionManager,
+      @Value("${app.checkout.pipeline.enabled:false}") boolean enabled,
+      @Value("${app.checkout.pipeline.max-batch:64}") int maxBatch,
+      @Value("${app.checkout.pipeline.max-wait:5ms}") Duration maxWait,
+      @Value("${app.checkout.pipeline.queue-capacity:1024}") int queueCapacity
+  ) {
+    this.transactions = new TransactionTemplate(transactionManager);
+    this.enabled = enabled;
+    this.maxBatch = maxBatch;
+    this.maxWaitNanos = maxWait.toNanos();
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    if (enabled) {
+      writer = new Thread(this::run, "checkout-writer");
+      writer.setDaemon(true);
+      writer.start();
+    } else {
+      writer = null;
+    }
+  }
+
+  public boolean enabled() {
+    return enabled;
+  }
+
+  /**
+   * Queues the order for insertion; the future completes once the order is committed.
+   */
+  public CompletableFuture<Order> submit(Order order) {
+    Pending pending = new Pending(order);
+    synchronized (lifecycle) {
+      if (!running || !queue.offer(pending)) {
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+            "Prea multe comenzi în curs, încearcă din nou");
+      }
+    }
+    return pending;
+  }
+
+  /**
+   * Takes back an order the writer has not started on, so it will never be stored. Returns
+   * {@code false} if the writer already has it; its future then completes with the outcome.
+   */
+  public boolean withdraw(CompletableFuture<Order> submitted) {
+    if (!(submitted instanceof Pending pending) || !pending.taken.compareAndSet(false, true)) {
+      return false;
+    }
+    queue.remove(pending);
+    pending.completeExceptionally(unavailable());
+    return true;
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    if (writer == null) {
+      return;
+    }
+    synchronized (lifecycle) {
+      running = false;
+    }
+    writer.join(TimeUnit.SECONDS.toMillis(10));
+    if (writer.isAlive()) {
+      log.warn("Checkout writer did not stop within 10s; {} orders still queued", queue.size());
+    }
+  }
+
+  private void run() {
+    List<Pending> group = new ArrayList<>(maxBatch);
+    List<Pending> left = new ArrayList<>();
+    try {
+      while (running) {
+        try {
+          try {
+            fill(group);
+          } catch (InterruptedException ex) {
+            log.debug("Checkout writer interrupted");
+          }
+          if (!group.isEmpty()) {
+            commit(group);
+          }
+        } catch (Throwable ex) {
+          log.error("Checkout writer failed on a group of {} orders", group.size(), ex);
+          group.forEach(pending -> pending.completeExceptionally(ex));
+        } finally {
+          group.clear();
+        }
+      }
+      // submit() refuses new orders once running is false, so this drains everything queued.
+      queue.drainTo(left);
+      for (Pending pending : left) {
+        take(pending, group);
+        if (group.size() == maxBatch) {
+          commit(group);
+          group.clear();
+        }
+      }
+      if (!group.isEmpty()) {
+        commit(group);
+      }
+    } catch (Throwable ex) {
+      log.error("Checkout writer stopped", ex);
+    } finally {
+      queue.drainTo(left);
+      ResponseStatusException stopped = unavailable();
+      group.forEach(pending -> pending.completeExceptionally(stopped));
+      left.forEach(pending -> pending.completeExceptionally(stopped));
+    }
+  }
+
+  /**
+   * Waits for a first order, then gathers more until the group is full or {@code max-wait} has
+   * passed since the first.
+   */
+  private void fill(List<Pending> group) throws InterruptedException {
+    if (!take(queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS), group)) {
+      return;
+    }
+    long deadline = System.nanoTime() + maxWaitNanos;
+    while (group.size() < maxBatch) {
+      long remaining = deadline - System.nanoTime();
+      Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+      if (next == null) {
+        break;
+      }
+      take(next, group);
+    }
+  }
+
+  /**
+   * Adds the order to the group unless it was withdrawn; {@code false} only when there is none.
+   */
+  private static boolean take(Pending pending, List<Pending> group) {
+    if (pending == null) {
+      return false;
+    }
+    if (pending.taken.compareAndSet(false, true)) {
+      group.add(pending);
+    }
+    return true;
+  }
+
+  private void commit(List<Pending> group) {
+    try {
+      persist(group);
+    } catch (RuntimeException ex) {
+      if (group.size() == 1) {
+        log.warn("Checkout order {} failed to commit", group.get(0).order.getId(), ex);
+        group.get(0).completeExceptionally(ex);
+        return;
+      }
+      log.warn("Checkout group of {} orders failed to commit; retrying them one by one", group.size(), ex);
+      for (Pending pending : group) {
+        commit(List.of(pending));
+      }
+      return;
+    }
+    group.forEach(pending -> pending.complete(pending.order));
+  }
+
+  private void persist(List<Pending> group) {
+    transactions.executeWithoutResult(status -> {
+      for (Pending pending : group) {
+        // Item ids generated by a rolled-back attempt would make the items look detached.
+        for (OrderItem item : pending.order.getItems()) {
+          item.setId(null);
+        }
+        entityManager.persist(pending.order);
+      }
+    });
+  }
+
+  private static ResponseStatusException unavailable() {
+    return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+        "Comanda nu a putut fi înregistrată, încearcă din nou");
+  }
+
+  /**
+   * A queued order and its outcome. {@code taken} is set once, by the writer when it starts on the
+   * order or by {@link #withdraw} when the caller gives up first.
+   */
+  private static final class Pending extends CompletableFuture<Order> {
+    private final Order order;
+    private final AtomicBoolean taken = new AtomicBoolean();
+
+    Pending(Order order) {
+      this.order = order;
+    }
+  }
+}
@@ -7,15 +7,28 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
 import ro.baskitup.adapters.persistence.OrderRepository;
 import ro.baskitup.application.services.CartService.CartItemRequest;
 import ro.baskitup.application.services.CartService.EstimateLine;
 import ro.baskitup.application.services.CartService.EstimateResult;
 import ro.baskitup.application.services.CartService.ShippingMethod;
+import ro.baskitup.application.strategy.PersonalizedRecommendations;
 import ro.baskitup.domain.model.Order;
 import ro.baskitup.domain.model.OrderItem;
 import ro.baskitup.domain.model.ShippingAddress;
@@ -24,13 +37,39 @@ import ro.baskitup.domain.model.ShippingAddress;
 public class CheckoutService {
   private final OrderRepository orders;
   private final CartService cartService;
+  private final PersonalizedRecommendations personalized;
+  private final StockLedger stock;
+  private final OrderNumbers orderNumbers;
+  private final CheckoutPipeline pipeline;
+  private final TransactionTemplate transactions;
+  private final long commitTimeoutMillis;
 
-  public CheckoutService(OrderRepository orders, CartService cartService) {
+  public CheckoutService(
+      OrderRepository orders,
+      CartService cartService,
+      PersonalizedRecommendations personalized,
+      StockLedger stock,
+      OrderNumbers orderNumbers,
+      CheckoutPipeline pipeline,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.checkout.pipeline.commit-timeout:10s}") Duration commitTimeout
+  ) {
     this.orders = orders;
     this.cartService = cartService;
+    this.personalized = personalized;
+    this.stock = stock;
+    this.orderNumbers = orderNumbers;
+    this.pipeline = pipeline;
+    this.transactions = new TransactionTemplate(transactionManager);
+    this.commitTimeoutMillis = commitTimeout.toMillis();
   }
 
-  @Transactional
+  /**
+   * Prices the cart, reserves its stock and stores the order, either in its own transaction or,
+   * with the checkout pipeline enabled, as part of the next group commit. The reservation is given
+   * back if the order cannot be stored. A pipelined order not committed within
+   * {@code commit-timeout} is withdrawn and the checkout answered with 503.
+   */
   public CheckoutResponse initCheckout(CheckoutRequest request) {
     ShippingMethod method = ShippingMethod.from(request.shippingMethod());
     EstimateResult estimate = cartService.estimate(request.items().stream()
@@ -38,6 +77,11 @@ public class CheckoutService {
         .toList(), method);
 
     Order order = new Order();
+    Map<UUID, Integer> quantities = new LinkedHashMap<>();
+    for (EstimateLine line : estimate.lines()) {
+      quantities.merge(line.basketId(), line.quantity(), Math::addExact);
+    }
+    order.setOrderNumber(orderNumbers.next());
     order.setCustomerName(request.firstName().trim() + " " + request.lastName().trim());
     order.setCustomerEmail(request.email().trim().toLowerCase());
     order.setCustomerPhone(request.phone());
@@ -50,6 +94,7 @@ public class CheckoutService {
         request.address().postalCode()
     ));
     order.setShippingFee(estimate.shipping());
+    order.setDiscountAmount(estimate.discount());
     order.setVatAmount(estimate.vat());
     order.setTotalAmount(estimate.total());
     order.setCurrency("RON");
@@ -63,12 +108,50 @@ public class CheckoutService {
       order.addItem(item);
     }
 
-    Order saved = orders.save(order);
-
-    orders.save(saved);
+    // Reserve last: nothing between the reservation and the try below can fail and leak the units.
+    stock.reserve(order.getId(), quantities);
+    Order saved;
+    try {
+      saved = pipeline.enabled()
+          ? awaitCommit(pipeline.submit(order))
+          : transactions.execute(status -> orders.save(order));
+    } catch (RuntimeException ex) {
+      stock.release(order.getId());
+      throw ex;
+    }
+    personalized.orderPlaced(saved.getCustomerEmail());
     return new CheckoutResponse(saved.getId(), saved.getOrderNumber(), "fake");
   }
 
+  private Order awaitCommit(CompletableFuture<Order> pending) {
+    try {
+      return pending.get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (ExecutionException ex) {
+      throw ex.getCause() instanceof RuntimeException cause ? cause : new CompletionException(ex.getCause());
+    } catch (TimeoutException ex) {
+      return withdrawOrWait(pending);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return withdrawOrWait(pending);
+    }
+  }
+
+  /**
+   * Gives up on a queued order, unless the writer is already storing it; then its outcome is
+   * moments away and is the answer.
+   */
+  private Order withdrawOrWait(CompletableFuture<Order> pending) {
+    if (pipeline.withdraw(pending)) {
+      throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+          "Comanda nu a putut fi înregistrată la timp, încearcă din nou");
+    }
+    try {
+      return pending.join();
+    } catch (CompletionException ex) {
+      throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+    }
+  }
+
   public record CheckoutResponse(UUID orderId, String orderNumber, String clientSecret) {}
 
   public record CheckoutRequest(
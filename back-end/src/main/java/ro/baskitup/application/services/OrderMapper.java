@@ -1,6 +1,5 @@
 package ro.baskitup.application.services;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
@@ -10,6 +9,7 @@ import java.util.stream.Collectors;
 import org.springframework.stereotype.Component;
 import ro.baskitup.adapters.persistence.BasketEntity;
 import ro.baskitup.adapters.persistence.BasketRepository;
+import ro.baskitup.domain.model.Money;
 import ro.baskitup.domain.model.Order;
 import ro.baskitup.domain.model.OrderItem;
 import ro.baskitup.domain.model.OrderStatus;
@@ -18,6 +18,7 @@ import ro.baskitup.domain.view.OrderView;
 
 @Component
 public class OrderMapper {
+  private static final Money EXPRESS_THRESHOLD = Money.ofMinor(3_000);
   private final BasketRepository baskets;
 
   public OrderMapper(BasketRepository baskets) {
@@ -31,10 +32,11 @@ public class OrderMapper {
         .map(item -> toItem(item, basketLookup.get(item.getBasketId())))
         .toList();
 
-    BigDecimal shipping = safe(order.getShippingFee());
-    BigDecimal vat = safe(order.getVatAmount());
-    BigDecimal total = safe(order.getTotalAmount());
-    BigDecimal subtotal = total.subtract(shipping).subtract(vat);
+    Money shipping = safe(order.getShippingFee());
+    Money vat = safe(order.getVatAmount());
+    Money total = safe(order.getTotalAmount());
+    Money discount = safe(order.getDiscountAmount());
+    Money subtotal = total.minus(shipping).minus(vat).plus(discount);
 
     ShippingAddress addr = order.getShippingAddress();
     String address = null;
@@ -49,7 +51,7 @@ public class OrderMapper {
         order.getOrderNumber(),
         order.getCreatedAt() != null ? order.getCreatedAt().toString() : Instant.now().toString(),
         mapStatus(order.getStatus()),
-        shipping.compareTo(BigDecimal.valueOf(30)) > 0 ? "express" : "standard",
+        shipping.compareTo(EXPRESS_THRESHOLD) > 0 ? "express" : "standard",
         order.getGiftNote(),
         order.getClientKey() != null ? order.getClientKey() : order.getUserKey(),
         new OrderView.Customer(
@@ -58,7 +60,7 @@ public class OrderMapper {
             order.getCustomerPhone(),
             address
         ),
-        new OrderView.Totals(subtotal, shipping, vat, total),
+        new OrderView.Totals(subtotal, discount, shipping, vat, total),
         items
     );
   }
@@ -84,8 +86,8 @@ public class OrderMapper {
     );
   }
 
-  private static BigDecimal safe(BigDecimal value) {
-    return value == null ? BigDecimal.ZERO : value;
+  private static Money safe(Money value) {
+    return value == null ? Money.ZERO : value;
   }
 
   private java.util.Map<UUID, BasketEntity> resolveBaskets(List<OrderItem> items) {
@@ -0,0 +1,50 @@
+package ro.baskitup.application.services;
+
+import org.springframework.stereotype.Component;
+import ro.baskitup.adapters.persistence.OrderNumberSequence;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hands out order numbers such as {@code BK-100042}. Numbers come from blocks reserved in the
+ * {@code order_numbers} sequence and are served from memory with an atomic counter, so only one
+ * order per block pays for a database round trip. Numbers are unique across instances and
+ * increase within each; a block left unused at shutdown is skipped.
+ */
+@Component
+public class OrderNumbers {
+  private static final String PREFIX = "BK-";
+
+  private final OrderNumberSequence sequence;
+  private volatile Block block = new Block(0, 0);
+
+  public OrderNumbers(OrderNumberSequence sequence) {
+    this.sequence = sequence;
+  }
+
+  public String next() {
+    while (true) {
+      Block current = block;
+      long number = current.next.getAndIncrement();
+      if (number < current.end) {
+        return PREFIX + number;
+      }
+      synchronized (this) {
+        if (block == current) {
+          long start = sequence.nextBlock();
+          block = new Block(start, start + sequence.blockSize());
+        }
+      }
+    }
+  }
+
+  private static final class Block {
+    private final AtomicLong next;
+    private final long end;
+
+    Block(long start, long end) {
+      this.next = new AtomicLong(start);
+      this.end = end;
+    }
+  }
+}
@@ -5,12 +5,12 @@ import ro.baskitup.domain.events.OrderPaid;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ro.baskitup.adapters.persistence.OrderRepository;
+import ro.baskitup.domain.model.Money;
 import ro.baskitup.domain.model.Order;
 import ro.baskitup.domain.model.OrderItem;
 import ro.baskitup.domain.model.OrderStatus;
 import ro.baskitup.domain.model.ShippingAddress;
 import ro.baskitup.domain.view.OrderView;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -21,11 +21,21 @@ public class OrderService {
   private final OrderRepository repo;
   private final DomainEventBus bus;
   private final OrderMapper mapper;
-
-  public OrderService(OrderRepository repo, DomainEventBus bus, OrderMapper mapper) {
+  private final StockLedger stock;
+  private final OrderNumbers orderNumbers;
+
+  public OrderService(
+      OrderRepository repo,
+      DomainEventBus bus,
+      OrderMapper mapper,
+      StockLedger stock,
+      OrderNumbers orderNumbers
+  ) {
     this.repo = repo;
     this.bus = bus;
     this.mapper = mapper;
+    this.stock = stock;
+    this.orderNumbers = orderNumbers;
   }
 
   public List<Order> list() {
@@ -37,9 +47,9 @@ public class OrderService {
   @Transactional
   public OrderView createSnapshot(OrderSnapshotRequest request) {
     Order order = new Order();
-    if (request.number() != null && !request.number().isBlank()) {
-      order.setOrderNumber(request.number());
-    }
+    order.setOrderNumber(request.number() != null && !request.number().isBlank()
+        ? request.number()
+        : orderNumbers.next());
     order.setGiftNote(request.note());
     order.setClientKey(request.userKey());
     order.setUserKey(request.userKey());
@@ -52,14 +62,17 @@ public class OrderService {
     OrderStatus status = mapStatus(request.status());
     order.setStatus(status);
 
-    BigDecimal shipping = safe(request.totals() != null ? request.totals().shipping() : null);
-    BigDecimal vat = safe(request.totals() != null ? request.totals().vat() : null);
-    BigDecimal total = safe(request.totals() != null ? request.totals().total() : null);
-    if (shipping.compareTo(BigDecimal.ZERO) == 0 && request.shippingMethod() != null) {
-      shipping = "express".equalsIgnoreCase(request.shippingMethod()) ? BigDecimal.valueOf(35) : BigDecimal.valueOf(25);
-      total = safe(request.totals() != null ? request.totals().total() : shipping.add(vat));
+    Money shipping = safe(request.totals() != null ? request.totals().shipping() : null);
+    Money vat = safe(request.totals() != null ? request.totals().vat() : null);
+    Money total = safe(request.totals() != null ? request.totals().total() : null);
+    if (shipping.isZero() && request.shippingMethod() != null) {
+      shipping = "express".equalsIgnoreCase(request.shippingMethod())
+          ? CartService.EXPRESS_SHIPPING
+          : CartService.STANDARD_SHIPPING;
+      total = request.totals() != null ? safe(request.totals().total()) : shipping.plus(vat);
     }
     order.setShippingFee(shipping);
+    order.setDiscountAmount(safe(request.totals() != null ? request.totals().discount() : null));
     order.setVatAmount(vat);
     order.setTotalAmount(total);
     if (request.createdAt() != null && !request.createdAt().isBlank()) {
@@ -105,6 +118,7 @@ public class OrderService {
   public Order cancel(UUID id, String reason) {
     Order o = repo.findById(id).orElseThrow();
     o.cancel(reason);
+    stock.release(o.getId());
     return repo.save(o);
   }
 
@@ -116,6 +130,8 @@ public class OrderService {
     Order saved = repo.save(o);
     if (next == OrderStatus.PAID) {
       bus.publish(new OrderPaid(saved.getId()));
+    } else if (next == OrderStatus.CANCELED) {
+      stock.release(saved.getId());
     }
     return mapper.toView(saved);
   }
@@ -139,8 +155,8 @@ public class OrderService {
     ));
   }
 
-  private static BigDecimal safe(BigDecimal value) {
-    return value == null ? BigDecimal.ZERO : value;
+  private static Money safe(Money value) {
+    return value == null ? Money.ZERO : value;
   }
 
   private static OrderStatus mapStatus(String status) {
@@ -1,7 +1,7 @@
 package ro.baskitup.application.services;
 
-import java.math.BigDecimal;
 import java.util.List;
+import ro.baskitup.domain.model.Money;
 
 public record OrderSnapshotRequest(
     String number,
@@ -15,6 +15,6 @@ public record OrderSnapshotRequest(
     List<Item> items
 ) {
   public record Customer(String name, String email, String phone, String address) {}
-  public record Totals(BigDecimal subtotal, BigDecimal shipping, BigDecimal vat, BigDecimal total) {}
-  public record Item(String id, String slug, String title, BigDecimal price, int quantity, String heroImage) {}
+  public record Totals(Money subtotal, Money discount, Money shipping, Money vat, Money total) {}
+  public record Item(String id, String slug, String title, Money price, int quantity, String heroImage) {}
 }
@@ -0,0 +1,148 @@
+package ro.baskitup.application.services;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.PromotionEntity;
+import ro.baskitup.adapters.persistence.PromotionRepository;
+import ro.baskitup.application.catalog.CatalogText;
+import ro.baskitup.application.promotions.PromotionEngine;
+import ro.baskitup.domain.model.Money;
+import ro.baskitup.domain.model.PromotionScope;
+import ro.baskitup.domain.model.PromotionType;
+import ro.baskitup.domain.view.PromotionView;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@Transactional
+public class PromotionService {
+  private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+  private final PromotionRepository promotions;
+  private final PromotionEngine engine;
+
+  public PromotionService(PromotionRepository promotions, PromotionEngine engine) {
+    this.promotions = promotions;
+    this.engine = engine;
+  }
+
+  @Transactional(readOnly = true)
+  public List<PromotionView> list() {
+    return promotions.findAllByOrderByCreatedAtDesc().stream().map(PromotionService::toView).toList();
+  }
+
+  public PromotionView create(PromotionRequest request) {
+    PromotionEntity promotion = new PromotionEntity();
+    promotion.setLabel(request.label().trim());
+    promotion.setType(request.type());
+    promotion.setScope(request.scope());
+    promotion.setTarget(target(request.scope(), request.target()));
+    switch (request.type()) {
+      case PERCENTAGE -> {
+        if (request.percent() == null
+            || request.percent().signum() <= 0
+            || request.percent().compareTo(HUNDRED) > 0) {
+          throw badRequest("Procentul trebuie să fie între 0 și 100");
+        }
+        promotion.setPercent(request.percent());
+      }
+      case FIXED -> {
+        if (request.amount() == null || request.amount().signum() <= 0) {
+          throw badRequest("Reducerea fixă trebuie să fie pozitivă");
+        }
+        promotion.setAmount(Money.of(request.amount()));
+      }
+      case BUY_X_GET_Y -> {
+        if (request.buyQuantity() == null || request.buyQuantity() < 1
+            || request.freeQuantity() == null || request.freeQuantity() < 1) {
+          throw badRequest("Oferta are nevoie de cantități pozitive");
+        }
+        promotion.setBuyQuantity(request.buyQuantity());
+        promotion.setFreeQuantity(request.freeQuantity());
+      }
+    }
+    if (request.startsAt() != null && request.endsAt() != null && !request.endsAt().isAfter(request.startsAt())) {
+      throw badRequest("Promoția trebuie să se termine după ce începe");
+    }
+    promotion.setStartsAt(request.startsAt());
+    promotion.setEndsAt(request.endsAt());
+    promotion.setActive(request.active() == null || request.active());
+    promotions.save(promotion);
+    engine.changed();
+    return toView(promotion);
+  }
+
+  public void delete(UUID id) {
+    if (!promotions.existsById(id)) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Promoția nu există");
+    }
+    promotions.deleteById(id);
+    engine.changed();
+  }
+
+  /**
+   * Stores targets in the form the engine indexes them by.
+   */
+  private static String target(PromotionScope scope, String target) {
+    if (scope == PromotionScope.ALL) {
+      return null;
+    }
+    if (!StringUtils.hasText(target)) {
+      throw badRequest("Promoția are nevoie de o țintă");
+    }
+    return switch (scope) {
+      case BASKET -> {
+        try {
+          yield UUID.fromString(target.trim()).toString();
+        } catch (IllegalArgumentException ex) {
+          throw badRequest("Ținta trebuie să fie id-ul unui coș");
+        }
+      }
+      case CATEGORY -> CatalogText.slugify(target);
+      case TAG -> CatalogText.fold(target.trim());
+      case ALL -> null;
+    };
+  }
+
+  private static ResponseStatusException badRequest(String message) {
+    return new ResponseStatusException(HttpStatus.BAD_REQUEST, message);
+  }
+
+  private static PromotionView toView(PromotionEntity promotion) {
+    return new PromotionView(
+        promotion.getId(),
+        promotion.getLabel(),
+        promotion.getType(),
+        promotion.getScope(),
+        promotion.getTarget(),
+        promotion.getPercent(),
+        promotion.getAmount(),
+        promotion.getBuyQuantity(),
+        promotion.getFreeQuantity(),
+        promotion.isActive(),
+        promotion.getStartsAt(),
+        promotion.getEndsAt()
+    );
+  }
+
+  public record PromotionRequest(
+      String label,
+      PromotionType type,
+      PromotionScope scope,
+      String target,
+      BigDecimal percent,
+      BigDecimal amount,
+      Integer buyQuantity,
+      Integer freeQuantity,
+      Boolean active,
+      Instant startsAt,
+      Instant endsAt
+  ) {
+  }
+}
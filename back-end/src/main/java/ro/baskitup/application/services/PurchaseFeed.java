@@ -0,0 +1,64 @@
+package ro.baskitup.application.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ro.baskitup.adapters.persistence.PaidOrder;
+import ro.baskitup.adapters.persistence.PaidOrderCursor;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Turns {@code OrderPaid} events into {@link PaidOrder}s for every {@link PurchaseListener}, and
+ * replays the paid order history for listeners that rebuild from scratch. An order id seen
+ * recently is not delivered twice, since the same order can be reported paid more than once.
+ */
+@Service
+public class PurchaseFeed {
+  private static final Logger log = LoggerFactory.getLogger(PurchaseFeed.class);
+  private static final int RECENT_ORDERS = 10_000;
+
+  private final PaidOrderCursor orders;
+  private final ObjectProvider<PurchaseListener> listeners;
+  private final Map<UUID, Boolean> recent = new LinkedHashMap<>(256, 0.75f, false) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<UUID, Boolean> eldest) {
+      return size() > RECENT_ORDERS;
+    }
+  };
+
+  public PurchaseFeed(PaidOrderCursor orders, ObjectProvider<PurchaseListener> listeners) {
+    this.orders = orders;
+    this.listeners = listeners;
+  }
+
+  public void orderPaid(UUID orderId) {
+    PaidOrder order = orders.find(orderId).orElse(null);
+    if (order == null) {
+      log.debug("Paid order {} not found or has no items", orderId);
+      return;
+    }
+    synchronized (recent) {
+      if (recent.put(orderId, Boolean.TRUE) != null) {
+        log.debug("Order {} already delivered to purchase listeners", orderId);
+        return;
+      }
+    }
+    PaidOrder paid = new PaidOrder(order.orderId(), Instant.now(), order.lines());
+    listeners.orderedStream().forEach(listener -> listener.purchased(paid));
+  }
+
+  /**
+   * Streams every paid or fulfilled order, dated by its creation time.
+   */
+  @Transactional(readOnly = true)
+  public void replay(Consumer<PaidOrder> sink) {
+    orders.forEach(sink);
+  }
+}
@@ -0,0 +1,11 @@
+package ro.baskitup.application.services;
+
+import ro.baskitup.adapters.persistence.PaidOrder;
+
+/**
+ * Implemented by beans that learn from purchases. {@link PurchaseFeed} calls it once per paid
+ * order, after the payment has been recorded.
+ */
+public interface PurchaseListener {
+  void purchased(PaidOrder order);
+}
@@ -1,37 +1,251 @@
 package ro.baskitup.application.services;
 
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
 import org.springframework.stereotype.Service;
+import ro.baskitup.application.catalog.CatalogIndex;
 import ro.baskitup.application.strategy.RecommendationContext;
 import ro.baskitup.application.strategy.RecommendationStrategy;
 import ro.baskitup.domain.view.BasketSummaryView;
+import ro.baskitup.domain.view.StrategyStatsView;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
 
 @Service
 public class RecommendationEngine {
   private static final Logger log = LoggerFactory.getLogger(RecommendationEngine.class);
 
+  private static final long[] LATENCY_BUCKETS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000};
+
   private final List<RecommendationStrategy> strategies;
+  private final CatalogIndex catalog;
+  private final List<Stats> stats = new ArrayList<>();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+  private final AtomicReference<Featured> cached = new AtomicReference<>();
+  private volatile List<BasketSummaryView> lastGood = List.of();
 
-  public RecommendationEngine(List<RecommendationStrategy> strategies) {
+  /**
+   * Every strategy gets {@code app.recommendations.strategy-timeout}, or its own
+   * {@code app.recommendations.strategy-timeouts.<SimpleClassName>} when set.
+   */
+  public RecommendationEngine(
+      List<RecommendationStrategy> strategies,
+      CatalogIndex catalog,
+      Environment environment,
+      @Value("${app.recommendations.strategy-timeout:250ms}") Duration defaultBudget
+  ) {
     this.strategies = strategies;
+    this.catalog = catalog;
+    for (RecommendationStrategy strategy : strategies) {
+      Duration budget = environment.getProperty(
+          "app.recommendations.strategy-timeouts." + strategy.name(), Duration.class, defaultBudget);
+      stats.add(new Stats(strategy.name(), budget.toNanos()));
+    }
   }
 
-  public List<BasketSummaryView> getFeatured() {
+  /**
+   * Featured baskets for today. The result only depends on the date (which picks the seasonal
+   * theme), the catalog contents and the strategies' {@link #revision()}, so it is computed once
+   * per (date, catalog version, revision); callers
+   * arriving while it is being computed wait for that computation instead of starting their own.
+   * A result that is not {@link Evaluation#complete() complete} is a fallback and should not be
+   * cached downstream either.
+   */
+  public Evaluation getFeatured() {
     RecommendationContext context = RecommendationContext.now();
+    FeaturedKey key = new FeaturedKey(context.date(), catalog.version(), revision());
+    Featured mine = new Featured(key, new CompletableFuture<>());
+    while (true) {
+      Featured current = cached.get();
+      if (current != null && current.key().equals(key)) {
+        return await(current.result());
+      }
+      if (cached.compareAndSet(current, mine)) {
+        break;
+      }
+    }
+    try {
+      Evaluation evaluation = evaluate(context);
+      mine.result().complete(evaluation);
+      if (!evaluation.complete()) {
+        // A fallback answer is shared with the callers already waiting but not kept.
+        cached.compareAndSet(mine, null);
+      }
+      return evaluation;
+    } catch (RuntimeException ex) {
+      mine.result().completeExceptionally(ex);
+      cached.compareAndSet(mine, null);
+      throw ex;
+    }
+  }
+
+  /**
+   * Sum of the strategies' revisions; it moves whenever one of them does.
+   */
+  public long revision() {
+    long revision = 0;
     for (RecommendationStrategy strategy : strategies) {
-      if (!strategy.supports(context)) {
-        continue;
+      revision += strategy.revision();
+    }
+    return revision;
+  }
+
+  public List<StrategyStatsView> stats() {
+    return stats.stream().map(Stats::view).toList();
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Runs every supporting strategy at once on virtual threads, then takes the results in priority
+   * order: the first non-empty one that arrived within its strategy's budget wins. If none did
+   * and some strategy timed out or failed, the last good answer is reused. An answer given while
+   * a strategy was missing is not complete and will not be memoized.
+   */
+  private Evaluation evaluate(RecommendationContext context) {
+    // A dropped snapshot is reloaded here, outside every strategy's budget, rather than by
+    // whichever strategy asks first; the strategies then all read the loaded one.
+    catalog.snapshot();
+    long started = System.nanoTime();
+    List<Future<List<BasketSummaryView>>> futures = new ArrayList<>(strategies.size());
+    for (int i = 0; i < strategies.size(); i++) {
+      RecommendationStrategy strategy = strategies.get(i);
+      Stats stat = stats.get(i);
+      futures.add(strategy.supports(context) ? executor.submit(() -> {
+        long begin = System.nanoTime();
+        try {
+          return strategy.featured(context);
+        } finally {
+          stat.record(System.nanoTime() - begin);
+        }
+      }) : null);
+    }
+
+    boolean complete = true;
+    try {
+      for (int i = 0; i < strategies.size(); i++) {
+        Future<List<BasketSummaryView>> future = futures.get(i);
+        if (future == null) {
+          continue;
+        }
+        RecommendationStrategy strategy = strategies.get(i);
+        Stats stat = stats.get(i);
+        long remaining = stat.budgetNanos - (System.nanoTime() - started);
+        List<BasketSummaryView> featured;
+        try {
+          featured = future.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+          stat.timeouts.increment();
+          log.warn("Recommendation strategy {} exceeded its {} ms budget", strategy.name(),
+              TimeUnit.NANOSECONDS.toMillis(stat.budgetNanos));
+          complete = false;
+          continue;
+        } catch (ExecutionException ex) {
+          stat.failures.increment();
+          log.warn("Recommendation strategy {} failed", strategy.name(), ex.getCause());
+          complete = false;
+          continue;
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return new Evaluation(lastGood, false);
+        }
+        if (!featured.isEmpty()) {
+          log.debug("Recommendation strategy {} returned {} baskets", strategy.name(), featured.size());
+          if (complete) {
+            lastGood = featured;
+          }
+          return new Evaluation(featured, complete);
+        }
       }
-      List<BasketSummaryView> featured = strategy.featured(context);
-      if (!featured.isEmpty()) {
-        log.debug("Recommendation strategy {} returned {} baskets", strategy.name(), featured.size());
-        return featured;
+      if (!complete) {
+        return new Evaluation(lastGood, false);
       }
+      log.debug("No recommendation strategy returned results, responding with empty list");
+      return new Evaluation(List.of(), true);
+    } finally {
+      // Not interrupted: a late strategy may be inside a catalog load, which has to finish.
+      futures.forEach(future -> {
+        if (future != null) {
+          future.cancel(false);
+        }
+      });
     }
-    log.debug("No recommendation strategy returned results, responding with empty list");
-    return List.of();
   }
+
+  private static Evaluation await(CompletableFuture<Evaluation> result) {
+    try {
+      return result.join();
+    } catch (CompletionException ex) {
+      if (ex.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw ex;
+    }
+  }
+
+  /**
+   * Featured baskets; {@code complete} is false when a strategy timed out or failed and the answer
+   * is a fallback.
+   */
+  public record Evaluation(List<BasketSummaryView> featured, boolean complete) {}
+
+  private static final class Stats {
+    private final String name;
+    private final long budgetNanos;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder[] buckets = new LongAdder[LATENCY_BUCKETS_MILLIS.length + 1];
+
+    Stats(String name, long budgetNanos) {
+      this.name = name;
+      this.budgetNanos = budgetNanos;
+      for (int i = 0; i < buckets.length; i++) {
+        buckets[i] = new LongAdder();
+      }
+    }
+
+    void record(long nanos) {
+      calls.increment();
+      long millis = TimeUnit.NANOSECONDS.toMillis(nanos);
+      int bucket = 0;
+      while (bucket < LATENCY_BUCKETS_MILLIS.length && millis > LATENCY_BUCKETS_MILLIS[bucket]) {
+        bucket++;
+      }
+      buckets[bucket].increment();
+    }
+
+    StrategyStatsView view() {
+      List<StrategyStatsView.Bucket> latency = new ArrayList<>(buckets.length);
+      for (int i = 0; i < buckets.length; i++) {
+        Long upTo = i < LATENCY_BUCKETS_MILLIS.length ? LATENCY_BUCKETS_MILLIS[i] : null;
+        latency.add(new StrategyStatsView.Bucket(upTo, buckets[i].sum()));
+      }
+      return new StrategyStatsView(name, TimeUnit.NANOSECONDS.toMillis(budgetNanos), calls.sum(),
+          timeouts.sum(), failures.sum(), latency);
+    }
+  }
+
+  private record FeaturedKey(LocalDate date, long catalogVersion, long revision) {}
+
+  private record Featured(FeaturedKey key, CompletableFuture<Evaluation> result) {}
 }
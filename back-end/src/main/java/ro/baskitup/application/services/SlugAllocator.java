@@ -0,0 +1,94 @@
+package ro.baskitup.application.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ro.baskitup.adapters.persistence.BasketRepository;
+import ro.baskitup.application.catalog.CatalogText;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+@Component
+public class SlugAllocator {
+  private final BasketRepository baskets;
+
+  public SlugAllocator(BasketRepository baskets) {
+    this.baskets = baskets;
+  }
+
+  /**
+   * Slugified explicit slug, falling back to the title and then to {@code basket}.
+   */
+  public static String baseSlug(String slug, String title) {
+    String base = CatalogText.slugify(StringUtils.hasText(slug) ? slug : title);
+    return StringUtils.hasText(base) ? base : "basket";
+  }
+
+  /**
+   * First free slug in {@code base, base-1, base-2, ...}, resolved with a single query. The basket
+   * being updated does not count as taken; {@code reserved} slugs do.
+   */
+  public String allocate(String base, UUID currentId, Set<String> reserved) {
+    return family(base, currentId).allocate(reserved);
+  }
+
+  /**
+   * The slugs of {@code base}'s family already in the database, loaded with a single query, to
+   * allocate several slugs from in memory.
+   */
+  public Family family(String base) {
+    return family(base, null);
+  }
+
+  private Family family(String base, UUID currentId) {
+    Family family = new Family(base);
+    for (Object[] row : baskets.findSlugFamily(base, base + "-%")) {
+      if (currentId != null && currentId.equals(row[0])) {
+        continue;
+      }
+      String slug = (String) row[1];
+      if (slug.equals(base)) {
+        family.baseTaken = true;
+        continue;
+      }
+      String suffix = slug.substring(base.length() + 1);
+      if (!suffix.isEmpty() && suffix.length() < 10 && suffix.chars().allMatch(Character::isDigit)) {
+        family.takenSuffixes.add(Integer.parseInt(suffix));
+      }
+    }
+    return family;
+  }
+
+  /**
+   * Taken slugs of one base. Each {@link #allocate} hands out the first free one and counts it as
+   * taken from then on; not thread-safe.
+   */
+  public static final class Family {
+    private final String base;
+    private final Set<Integer> takenSuffixes = new HashSet<>();
+    private boolean baseTaken;
+    private int nextSuffix = 1;
+
+    private Family(String base) {
+      this.base = base;
+    }
+
+    /**
+     * First slug of the family that is neither taken nor in {@code reserved}.
+     */
+    public String allocate(Set<String> reserved) {
+      if (!baseTaken && !reserved.contains(base)) {
+        baseTaken = true;
+        return base;
+      }
+      int suffix = nextSuffix;
+      while (takenSuffixes.contains(suffix) || reserved.contains(base + "-" + suffix)) {
+        suffix++;
+      }
+      takenSuffixes.add(suffix);
+      nextSuffix = suffix + 1;
+      return base + "-" + suffix;
+    }
+  }
+}
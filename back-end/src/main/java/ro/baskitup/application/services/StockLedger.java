@@ -0,0 +1,319 @@
+package ro.baskitup.application.services;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.PaidOrder;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogListener;
+import ro.baskitup.application.catalog.CatalogSnapshot;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sellable stock per basket, kept in memory so checkouts can claim units without touching the
+ * database. Each basket has its own counter of units still available; a checkout reserves its
+ * lines with compare-and-set decrements that never go below zero, so two checkouts can't both get
+ * the last unit. When the order is paid the reservation becomes a sale, and sales are written
+ * behind to {@code gift_baskets.stock} in one batch per interval. Reservations that are never paid
+ * expire and give their units back.
+ *
+ * <p>Once a basket has a counter the ledger is the authority for it: stock changes made elsewhere
+ * (admin edits, imports) arrive as catalog events and are applied as the difference to the last
+ * stock the ledger wrote or saw.
+ */
+@Component
+public class StockLedger implements PurchaseListener, CatalogListener {
+  private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+  private static final String DECREMENT = "update gift_baskets set stock = stock - ? where id = ?";
+
+  private final CatalogIndex catalog;
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate transactions;
+  private final long reservationTtlMillis;
+  private final Map<UUID, Slot> slots = new ConcurrentHashMap<>();
+  private final Map<UUID, Reservation> reservations = new ConcurrentHashMap<>();
+  private final Object flushLock = new Object();
+  private final ScheduledExecutorService writer;
+
+  public StockLedger(
+      CatalogIndex catalog,
+      JdbcTemplate jdbc,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.inventory.reservation-ttl:30m}") Duration reservationTtl,
+      @Value("${app.inventory.flush-interval:1s}") Duration flushInterval
+  ) {
+    this.catalog = catalog;
+    this.jdbc = jdbc;
+    this.transactions = new TransactionTemplate(transactionManager);
+    this.reservationTtlMillis = reservationTtl.toMillis();
+    this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "stock-ledger");
+      thread.setDaemon(true);
+      return thread;
+    });
+    long interval = flushInterval.toMillis();
+    writer.scheduleWithFixedDelay(this::maintain, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Units of the basket that can still be sold, or {@code fallback} when the ledger does not
+   * track it yet.
+   */
+  public int available(UUID basketId, int fallback) {
+    Slot slot = slots.get(basketId);
+    return slot == null ? fallback : slot.available.get();
+  }
+
+  /**
+   * Claims every line for the order, or none of them. Inside a transaction, the units are given
+   * back if it rolls back.
+   */
+  public void reserve(UUID orderId, Map<UUID, Integer> quantities) {
+    if (quantities.values().stream().anyMatch(quantity -> quantity == null || quantity <= 0)) {
+      throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cantitatea trebuie să fie pozitivă");
+    }
+    CatalogSnapshot snapshot = catalog.snapshot();
+    Map<Slot, Integer> taken = new LinkedHashMap<>();
+    for (Map.Entry<UUID, Integer> line : quantities.entrySet()) {
+      Slot slot = slot(line.getKey(), snapshot);
+      if (slot == null || !slot.tryTake(line.getValue())) {
+        taken.forEach(Slot::give);
+        BasketSummaryView basket = snapshot.find(line.getKey());
+        throw new ResponseStatusException(HttpStatus.CONFLICT,
+            "Stoc insuficient pentru " + (basket == null ? "coșul ales" : basket.title()));
+      }
+      taken.put(slot, line.getValue());
+    }
+    reservations.put(orderId, new Reservation(
+        Map.copyOf(quantities), System.currentTimeMillis() + reservationTtlMillis));
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          if (status != STATUS_COMMITTED) {
+            giveBack(orderId);
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Gives back the units of an order that will not be paid, after the surrounding transaction
+   * commits. Does nothing once it was paid.
+   */
+  public void release(UUID orderId) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      giveBack(orderId);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        giveBack(orderId);
+      }
+    });
+  }
+
+  private void giveBack(UUID orderId) {
+    Reservation reservation = reservations.remove(orderId);
+    if (reservation == null) {
+      return;
+    }
+    reservation.quantities().forEach((basketId, quantity) -> {
+      Slot slot = slots.get(basketId);
+      if (slot != null) {
+        slot.give(quantity);
+      }
+    });
+  }
+
+  /**
+   * Turns the order's reservation into a sale. An order paid without one (it expired, was placed
+   * before a restart, or did not go through checkout) still sells its units, even if that takes a
+   * counter below zero: the goods are paid for.
+   */
+  @Override
+  public void purchased(PaidOrder order) {
+    Reservation reservation = reservations.remove(order.orderId());
+    CatalogSnapshot snapshot = catalog.snapshot();
+    if (reservation != null) {
+      reservation.quantities().forEach((basketId, quantity) -> {
+        Slot slot = slots.get(basketId);
+        if (slot != null) {
+          slot.unflushed.addAndGet(quantity);
+        }
+      });
+      return;
+    }
+    for (PaidOrder.Line line : order.lines()) {
+      Slot slot = line.basketId() == null ? null : slot(line.basketId(), snapshot);
+      if (slot != null) {
+        slot.available.addAndGet(-line.quantity());
+        slot.unflushed.addAndGet(line.quantity());
+      }
+    }
+  }
+
+  @Override
+  public void catalogLoaded(CatalogSnapshot snapshot) {
+    synchronized (flushLock) {
+      slots.forEach((basketId, slot) -> {
+        BasketSummaryView basket = snapshot.find(basketId);
+        if (basket == null) {
+          slots.remove(basketId);
+        } else {
+          slot.stockChanged(basket.stock());
+        }
+      });
+    }
+  }
+
+  @Override
+  public void basketChanged(BasketSummaryView previous, BasketSummaryView current, CatalogSnapshot snapshot) {
+    synchronized (flushLock) {
+      if (current == null) {
+        slots.remove(previous.id());
+        return;
+      }
+      Slot slot = slots.get(current.id());
+      if (slot != null) {
+        slot.stockChanged(current.stock());
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    writer.shutdownNow();
+    flush();
+  }
+
+  private Slot slot(UUID basketId, CatalogSnapshot snapshot) {
+    Slot slot = slots.get(basketId);
+    if (slot != null) {
+      return slot;
+    }
+    BasketSummaryView basket = snapshot.find(basketId);
+    return basket == null ? null : slots.computeIfAbsent(basketId, id -> new Slot(basket.stock()));
+  }
+
+  final void maintain() {
+    try {
+      expire();
+      flush();
+    } catch (RuntimeException ex) {
+      log.warn("Stock ledger maintenance failed, retrying next round", ex);
+    }
+  }
+
+  private void expire() {
+    long now = System.currentTimeMillis();
+    reservations.forEach((orderId, reservation) -> {
+      if (reservation.expiresAt() < now) {
+        giveBack(orderId);
+      }
+    });
+  }
+
+  /**
+   * Writes the sales recorded since the last round in one batch and patches the catalog with the
+   * new stock in a single swap. Runs under the catalog's lock (taken before ours, as catalog
+   * callbacks do): a load that read the table before this write would otherwise be delivered
+   * after the slots caught up, and hand the sold units back.
+   */
+  private void flush() {
+    catalog.writeStock(this::writeSales);
+  }
+
+  private Map<UUID, Integer> writeSales() {
+    Map<UUID, Integer> written = new HashMap<>();
+    synchronized (flushLock) {
+      List<Object[]> batch = new ArrayList<>();
+      Map<UUID, Integer> drained = new LinkedHashMap<>();
+      slots.forEach((basketId, slot) -> {
+        int sold = slot.unflushed.getAndSet(0);
+        if (sold != 0) {
+          batch.add(new Object[] {sold, basketId});
+          drained.put(basketId, sold);
+        }
+      });
+      if (batch.isEmpty()) {
+        return written;
+      }
+      try {
+        transactions.executeWithoutResult(status -> jdbc.batchUpdate(DECREMENT, batch));
+      } catch (RuntimeException ex) {
+        drained.forEach((basketId, sold) -> slots.get(basketId).unflushed.addAndGet(sold));
+        throw ex;
+      }
+      drained.forEach((basketId, sold) -> {
+        Slot slot = slots.get(basketId);
+        slot.stock -= sold;
+        written.put(basketId, slot.stock);
+      });
+    }
+    return written;
+  }
+
+  private record Reservation(Map<UUID, Integer> quantities, long expiresAt) {}
+
+  private static final class Slot {
+    private final AtomicInteger available;
+    private final AtomicInteger unflushed = new AtomicInteger();
+    /** Stock in the database once everything flushed so far is applied; guarded by the flush lock. */
+    private int stock;
+
+    Slot(int stock) {
+      this.stock = stock;
+      this.available = new AtomicInteger(stock);
+    }
+
+    boolean tryTake(int quantity) {
+      if (quantity <= 0) {
+        throw new IllegalArgumentException("Quantity must be positive: " + quantity);
+      }
+      int current;
+      do {
+        current = available.get();
+        if (current < quantity) {
+          return false;
+        }
+      } while (!available.compareAndSet(current, current - quantity));
+      return true;
+    }
+
+    void give(int quantity) {
+      available.addAndGet(quantity);
+    }
+
+    void stockChanged(int current) {
+      if (current != stock) {
+        available.addAndGet(current - stock);
+        stock = current;
+      }
+    }
+  }
+}
@@ -0,0 +1,415 @@
+package ro.baskitup.application.strategy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.PaidOrder;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogSnapshot;
+import ro.baskitup.application.services.PurchaseFeed;
+import ro.baskitup.application.services.PurchaseListener;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Frequently bought together": a sparse basket-by-basket co-occurrence matrix over paid orders.
+ * Baskets get dense int ids; each row is an {@link IntCounter} of the baskets bought with it plus
+ * its top {@value #MAX_RELATED}, kept up to date on every purchase so a lookup only reads that
+ * list. Counts only grow, which keeps the incremental top list exact.
+ *
+ * <p>On startup the matrix is rebuilt from the order history on all cores, each worker owning the
+ * rows whose id falls in its shard. The history is read once: the replaying thread hands each order
+ * to the shards owning one of its baskets in batches through bounded queues, so only a few batches
+ * per shard are in memory at a time, never the whole history. Purchases arriving meanwhile are
+ * queued and applied once the rebuild is installed; one that the rebuild already saw may be counted twice, which only nudges
+ * the ranking.
+ */
+@Component
+public class CoPurchaseRecommendations implements PurchaseListener {
+  private static final Logger log = LoggerFactory.getLogger(CoPurchaseRecommendations.class);
+  public static final int MAX_RELATED = 20;
+  private static final int MAX_BASKETS_PER_ORDER = 32;
+  private static final int SHARD_BATCH = 512;
+  private static final int SHARD_QUEUE = 8;
+
+  private final CatalogIndex catalog;
+  private final PurchaseFeed purchases;
+  private final boolean rebuildOnStartup;
+  private final List<PaidOrder> pending = new ArrayList<>();
+  private volatile Matrix matrix = new Matrix();
+  private boolean rebuilding = true;
+
+  public CoPurchaseRecommendations(
+      CatalogIndex catalog,
+      PurchaseFeed purchases,
+      @Value("${app.recommendations.related-rebuild-on-startup:true}") boolean rebuildOnStartup
+  ) {
+    this.catalog = catalog;
+    this.purchases = purchases;
+    this.rebuildOnStartup = rebuildOnStartup;
+  }
+
+  /**
+   * Baskets most often bought together with the given one, most frequent first.
+   */
+  public List<BasketSummaryView> related(String slug, int limit) {
+    CatalogSnapshot snapshot = catalog.snapshot();
+    BasketSummaryView basket = snapshot.findBySlug(slug);
+    if (basket == null) {
+      throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Coșul cerut nu a fost găsit");
+    }
+    Matrix current = matrix;
+    Integer id = current.ids.get(basket.id());
+    Row row = id == null || id >= current.rows.length ? null : current.rows[id];
+    long[] top = row == null ? null : row.top;
+    if (top == null) {
+      return List.of();
+    }
+    UUID[] uuids = current.uuids;
+    List<BasketSummaryView> out = new ArrayList<>(Math.min(limit, top.length));
+    for (int i = 0; i < top.length && out.size() < limit; i++) {
+      BasketSummaryView view = snapshot.find(uuids[(int) top[i]]);
+      if (view != null) {
+        out.add(view);
+      }
+    }
+    return out;
+  }
+
+  @Override
+  public void purchased(PaidOrder order) {
+    synchronized (this) {
+      if (rebuilding) {
+        pending.add(order);
+        return;
+      }
+      matrix.add(basketIds(matrix, order, catalog.snapshot()));
+    }
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void startRebuild() {
+    if (!rebuildOnStartup) {
+      install(new Matrix());
+      return;
+    }
+    Thread thread = new Thread(() -> {
+      try {
+        install(rebuild());
+      } catch (RuntimeException ex) {
+        log.error("Co-purchase rebuild failed, starting from an empty matrix", ex);
+        install(new Matrix());
+      }
+    }, "co-purchase-rebuild");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  private synchronized void install(Matrix rebuilt) {
+    CatalogSnapshot snapshot = catalog.snapshot();
+    for (PaidOrder order : pending) {
+      rebuilt.add(basketIds(rebuilt, order, snapshot));
+    }
+    pending.clear();
+    matrix = rebuilt;
+    rebuilding = false;
+  }
+
+  private Matrix rebuild() {
+    long started = System.nanoTime();
+    CatalogSnapshot snapshot = catalog.snapshot();
+    Matrix rebuilt = new Matrix();
+    int shards = Runtime.getRuntime().availableProcessors();
+    Shard[] workers = new Shard[shards];
+    List<Future<?>> running = new ArrayList<>(shards);
+    ExecutorService pool = Executors.newFixedThreadPool(shards);
+    long[] orders = new long[1];
+    try {
+      for (int shard = 0; shard < shards; shard++) {
+        workers[shard] = new Shard(shard, shards);
+        running.add(pool.submit(workers[shard]));
+      }
+      purchases.replay(order -> {
+        int[] ids = basketIds(rebuilt, order, snapshot);
+        if (ids.length < 2) {
+          return;
+        }
+        orders[0]++;
+        for (Shard worker : workers) {
+          worker.offer(ids);
+        }
+        for (int shard = 0; shard < shards; shard++) {
+          workers[shard].sendIfFull(running.get(shard));
+        }
+      });
+      for (int shard = 0; shard < shards; shard++) {
+        workers[shard].finish(running.get(shard));
+      }
+      for (Future<?> worker : running) {
+        worker.get();
+      }
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Co-purchase rebuild interrupted", ex);
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException("Co-purchase rebuild worker failed", ex.getCause());
+    } finally {
+      pool.shutdownNow();
+    }
+
+    int baskets = rebuilt.size;
+    Row[] rows = new Row[baskets];
+    for (Shard worker : workers) {
+      worker.copyTo(rows);
+    }
+    rebuilt.rows = rows;
+    log.info("Co-purchase matrix rebuilt from {} orders over {} baskets in {} ms",
+        orders[0], baskets, (System.nanoTime() - started) / 1_000_000);
+    return rebuilt;
+  }
+
+  /**
+   * Distinct ids of the order's baskets that still exist in the catalog, registering new ones.
+   */
+  private static int[] basketIds(Matrix matrix, PaidOrder order, CatalogSnapshot snapshot) {
+    int[] ids = new int[Math.min(order.lines().size(), MAX_BASKETS_PER_ORDER)];
+    int count = 0;
+    for (PaidOrder.Line line : order.lines()) {
+      if (count == ids.length) {
+        break;
+      }
+      if (line.basketId() == null || snapshot.find(line.basketId()) == null) {
+        continue;
+      }
+      int id = matrix.idOf(line.basketId());
+      boolean seen = false;
+      for (int i = 0; i < count && !seen; i++) {
+        seen = ids[i] == id;
+      }
+      if (!seen) {
+        ids[count++] = id;
+      }
+    }
+    return Arrays.copyOf(ids, count);
+  }
+
+  private static long[] topOf(IntCounter counts) {
+    long[] packed = counts.packed();
+    Arrays.sort(packed);
+    int size = Math.min(MAX_RELATED, packed.length);
+    long[] top = new long[size];
+    for (int i = 0; i < size; i++) {
+      top[i] = packed[packed.length - 1 - i];
+    }
+    return top;
+  }
+
+  /**
+   * Id dictionary and rows. Mutated only under the owning component's lock (or by the rebuild
+   * before it is published); readers rely on the volatile fields.
+   */
+  private static final class Matrix {
+    private final Map<UUID, Integer> ids = new ConcurrentHashMap<>();
+    private volatile UUID[] uuids = new UUID[64];
+    private volatile Row[] rows = new Row[64];
+    private int size;
+
+    int idOf(UUID basketId) {
+      Integer existing = ids.get(basketId);
+      if (existing != null) {
+        return existing;
+      }
+      if (size == uuids.length) {
+        uuids = Arrays.copyOf(uuids, size * 2);
+      }
+      uuids[size] = basketId;
+      ids.put(basketId, size);
+      return size++;
+    }
+
+    void add(int[] basketIds) {
+      if (basketIds.length < 2) {
+        return;
+      }
+      if (rows.length < size) {
+        rows = Arrays.copyOf(rows, Math.max(size, rows.length * 2));
+      }
+      for (int a : basketIds) {
+        Row row = rows[a];
+        if (row == null) {
+          row = rows[a] = new Row();
+        }
+        for (int b : basketIds) {
+          if (b != a) {
+            row.increment(b);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Rebuild worker owning the rows whose id is {@code shard} modulo {@code shards}. The replaying
+   * thread fills {@link #batch} and hands it over through the bounded queue; an empty batch ends
+   * the stream.
+   */
+  private static final class Shard implements Runnable {
+    private static final List<int[]> END = List.of();
+
+    private final int shard;
+    private final int shards;
+    private final BlockingQueue<List<int[]>> queue = new ArrayBlockingQueue<>(SHARD_QUEUE);
+    private List<int[]> batch = new ArrayList<>(SHARD_BATCH);
+    private Row[] rows = new Row[64];
+
+    Shard(int shard, int shards) {
+      this.shard = shard;
+      this.shards = shards;
+    }
+
+    /** Called by the replaying thread; keeps the order if one of its baskets is ours. */
+    void offer(int[] ids) {
+      for (int a : ids) {
+        if (a % shards == shard) {
+          batch.add(ids);
+          return;
+        }
+      }
+    }
+
+    void sendIfFull(Future<?> worker) {
+      if (batch.size() >= SHARD_BATCH) {
+        send(batch, worker);
+        batch = new ArrayList<>(SHARD_BATCH);
+      }
+    }
+
+    void finish(Future<?> worker) {
+      if (!batch.isEmpty()) {
+        send(batch, worker);
+      }
+      send(END, worker);
+    }
+
+    /** Blocks while the queue is full, but gives up with the worker's failure if it died. */
+    private void send(List<int[]> orders, Future<?> worker) {
+      try {
+        while (!queue.offer(orders, 100, TimeUnit.MILLISECONDS)) {
+          if (worker.isDone()) {
+            worker.get();
+            throw new IllegalStateException("Co-purchase shard " + shard + " stopped early");
+          }
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Co-purchase rebuild interrupted", ex);
+      } catch (ExecutionException ex) {
+        throw new IllegalStateException("Co-purchase shard " + shard + " failed", ex.getCause());
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        for (List<int[]> orders = queue.take(); orders != END; orders = queue.take()) {
+          for (int[] ids : orders) {
+            count(ids);
+          }
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Co-purchase shard " + shard + " interrupted", ex);
+      }
+      for (Row row : rows) {
+        if (row != null) {
+          row.top = topOf(row.counts);
+        }
+      }
+    }
+
+    private void count(int[] ids) {
+      for (int a : ids) {
+        if (a % shards != shard) {
+          continue;
+        }
+        int local = a / shards;
+        if (local >= rows.length) {
+          rows = Arrays.copyOf(rows, Math.max(local + 1, rows.length * 2));
+        }
+        Row row = rows[local];
+        if (row == null) {
+          row = rows[local] = new Row();
+        }
+        for (int b : ids) {
+          if (b != a) {
+            row.counts.add(b, 1);
+          }
+        }
+      }
+    }
+
+    void copyTo(Row[] all) {
+      for (int local = 0; local < rows.length; local++) {
+        int a = local * shards + shard;
+        if (a < all.length) {
+          all[a] = rows[local];
+        }
+      }
+    }
+  }
+
+  private static final class Row {
+    private final IntCounter counts = new IntCounter();
+    /** Up to {@code MAX_RELATED} entries packed as {@code count << 32 | id}, highest first. */
+    private volatile long[] top = new long[0];
+
+    void increment(int other) {
+      int count = counts.add(other, 1);
+      long[] current = top;
+      int position = -1;
+      for (int i = 0; i < current.length; i++) {
+        if ((int) current[i] == other) {
+          position = i;
+          break;
+        }
+      }
+      long[] next;
+      if (position >= 0) {
+        next = current.clone();
+      } else if (current.length < MAX_RELATED) {
+        next = Arrays.copyOf(current, current.length + 1);
+        position = current.length;
+      } else if (count > (int) (current[current.length - 1] >>> 32)) {
+        next = current.clone();
+        position = current.length - 1;
+      } else {
+        return;
+      }
+      next[position] = (long) count << 32 | other;
+      while (position > 0 && next[position] > next[position - 1]) {
+        long swap = next[position];
+        next[position] = next[position - 1];
+        next[--position] = swap;
+      }
+      top = next;
+    }
+  }
+}
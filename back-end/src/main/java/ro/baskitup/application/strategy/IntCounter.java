@@ -0,0 +1,80 @@
+package ro.baskitup.application.strategy;
+
+/**
+ * Open-addressing {@code int -> int} counter for non-negative keys, without boxing. Keys are
+ * stored shifted by one so that zero marks a free slot.
+ */
+final class IntCounter {
+  private int[] keys;
+  private int[] counts;
+  private int size;
+
+  IntCounter() {
+    this(4);
+  }
+
+  IntCounter(int expected) {
+    int capacity = Integer.highestOneBit(Math.max(4, expected * 2 - 1)) << 1;
+    keys = new int[capacity];
+    counts = new int[capacity];
+  }
+
+  /**
+   * Adds {@code delta} to the count of {@code key} and returns the new count.
+   */
+  int add(int key, int delta) {
+    int slot = slot(keys, key);
+    if (keys[slot] == 0) {
+      if ((size + 1) * 4 > keys.length * 3) {
+        grow();
+        slot = slot(keys, key);
+      }
+      keys[slot] = key + 1;
+      size++;
+    }
+    counts[slot] += delta;
+    return counts[slot];
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Entries packed as {@code count << 32 | key}, in no particular order.
+   */
+  long[] packed() {
+    long[] out = new long[size];
+    int i = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (keys[slot] != 0) {
+        out[i++] = (long) counts[slot] << 32 | (keys[slot] - 1);
+      }
+    }
+    return out;
+  }
+
+  private void grow() {
+    int[] oldKeys = keys;
+    int[] oldCounts = counts;
+    keys = new int[oldKeys.length * 2];
+    counts = new int[oldKeys.length * 2];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != 0) {
+        int slot = slot(keys, oldKeys[i] - 1);
+        keys[slot] = oldKeys[i];
+        counts[slot] = oldCounts[i];
+      }
+    }
+  }
+
+  private static int slot(int[] keys, int key) {
+    int mask = keys.length - 1;
+    int hash = key * 0x9E3779B9;
+    int slot = (hash ^ hash >>> 16) & mask;
+    while (keys[slot] != 0 && keys[slot] != key + 1) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+}
@@ -0,0 +1,132 @@
+package ro.baskitup.application.strategy;
+
+import ro.baskitup.application.catalog.CatalogText;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton answering "does the text contain any of the keywords" in one pass over
+ * the text. Keywords and text are compared {@link CatalogText#fold folded}. Transitions are a
+ * dense table over the keywords' own alphabet; any other character sends the scan back to the
+ * root.
+ */
+final class KeywordMatcher {
+  private static final KeywordMatcher EMPTY = new KeywordMatcher(new int[0][], new boolean[] {false}, new char[0]);
+
+  private final int[][] next;
+  private final boolean[] accepting;
+  private final char[] alphabet;
+
+  private KeywordMatcher(int[][] next, boolean[] accepting, char[] alphabet) {
+    this.next = next;
+    this.accepting = accepting;
+    this.alphabet = alphabet;
+  }
+
+  static KeywordMatcher compile(Collection<String> keywords) {
+    List<String> folded = keywords.stream()
+        .map(keyword -> CatalogText.fold(keyword.trim()))
+        .filter(keyword -> !keyword.isEmpty())
+        .distinct()
+        .toList();
+    if (folded.isEmpty()) {
+      return EMPTY;
+    }
+    char[] alphabet = alphabet(folded);
+
+    // Trie of the keywords, then failure links filled breadth first into a full transition table.
+    List<int[]> rows = new ArrayList<>();
+    List<Boolean> terminal = new ArrayList<>();
+    rows.add(newRow(alphabet.length));
+    terminal.add(false);
+    for (String keyword : folded) {
+      int state = 0;
+      for (int i = 0; i < keyword.length(); i++) {
+        int symbol = Arrays.binarySearch(alphabet, keyword.charAt(i));
+        if (rows.get(state)[symbol] < 0) {
+          rows.get(state)[symbol] = rows.size();
+          rows.add(newRow(alphabet.length));
+          terminal.add(false);
+        }
+        state = rows.get(state)[symbol];
+      }
+      terminal.set(state, true);
+    }
+
+    int[][] next = rows.toArray(int[][]::new);
+    boolean[] accepting = new boolean[next.length];
+    for (int state = 0; state < next.length; state++) {
+      accepting[state] = terminal.get(state);
+    }
+    int[] failure = new int[next.length];
+    Deque<Integer> queue = new ArrayDeque<>();
+    for (int symbol = 0; symbol < alphabet.length; symbol++) {
+      if (next[0][symbol] < 0) {
+        next[0][symbol] = 0;
+      } else {
+        failure[next[0][symbol]] = 0;
+        queue.add(next[0][symbol]);
+      }
+    }
+    while (!queue.isEmpty()) {
+      int state = queue.poll();
+      accepting[state] |= accepting[failure[state]];
+      for (int symbol = 0; symbol < alphabet.length; symbol++) {
+        int child = next[state][symbol];
+        if (child < 0) {
+          next[state][symbol] = next[failure[state]][symbol];
+        } else {
+          failure[child] = next[failure[state]][symbol];
+          queue.add(child);
+        }
+      }
+    }
+    return new KeywordMatcher(next, accepting, alphabet);
+  }
+
+  boolean isEmpty() {
+    return next.length == 0;
+  }
+
+  /**
+   * Whether any keyword occurs in one of the texts. Texts are scanned as if joined by a space.
+   */
+  boolean matchesAny(String... texts) {
+    if (isEmpty()) {
+      return false;
+    }
+    int state = 0;
+    for (String text : texts) {
+      String folded = CatalogText.fold(text);
+      for (int i = 0; i <= folded.length(); i++) {
+        char c = i < folded.length() ? folded.charAt(i) : ' ';
+        int symbol = Arrays.binarySearch(alphabet, c);
+        state = symbol < 0 ? 0 : next[state][symbol];
+        if (accepting[state]) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  private static char[] alphabet(List<String> keywords) {
+    StringBuilder chars = new StringBuilder();
+    keywords.forEach(chars::append);
+    return chars.chars().distinct().sorted()
+        .collect(StringBuilder::new, StringBuilder::appendCodePoint, StringBuilder::append)
+        .toString()
+        .toCharArray();
+  }
+
+  private static int[] newRow(int size) {
+    int[] row = new int[size];
+    Arrays.fill(row, -1);
+    return row;
+  }
+}
@@ -0,0 +1,209 @@
+package ro.baskitup.application.strategy;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ro.baskitup.adapters.persistence.PaidOrder;
+import ro.baskitup.adapters.persistence.PaidOrderCursor;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogSnapshot;
+import ro.baskitup.application.catalog.CatalogText;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Featured baskets for a signed-in customer, scored by how well their tags and category match
+ * what the customer ordered before. Picks are precomputed per active customer and kept in a
+ * bounded LRU; a checkout or a catalog change refreshes them in the background while the previous
+ * picks keep being served. Customers without history, and customers whose picks are still being
+ * computed, get nothing here and use the shared list.
+ */
+@Component
+public class PersonalizedRecommendations {
+  private static final Logger log = LoggerFactory.getLogger(PersonalizedRecommendations.class);
+  private static final int FEATURED = 4;
+  private static final int TOP_K = 12;
+  private static final int HISTORY_ORDERS = 50;
+  private static final double CATEGORY_WEIGHT = 2.0;
+
+  private final CatalogIndex catalog;
+  private final PaidOrderCursor orders;
+  private final Map<String, Profile> profiles;
+  private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+  private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+  public PersonalizedRecommendations(
+      CatalogIndex catalog,
+      PaidOrderCursor orders,
+      @Value("${app.recommendations.personal-max-users:10000}") int maxUsers
+  ) {
+    this.catalog = catalog;
+    this.orders = orders;
+    this.profiles = new LinkedHashMap<>(256, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Profile> eldest) {
+        return size() > maxUsers;
+      }
+    };
+  }
+
+  /**
+   * Picks for the customer, or an empty list when there is nothing personal to show yet. Never
+   * computes on the caller's thread: a customer not in the LRU is computed in the background.
+   */
+  public List<BasketSummaryView> featured(UUID userId, String email) {
+    String key = key(email);
+    Profile profile;
+    synchronized (profiles) {
+      profile = profiles.get(key);
+    }
+    if (profile == null) {
+      computeLater(userId, key, true);
+      return List.of();
+    }
+    CatalogSnapshot snapshot = catalog.snapshot();
+    // Stock is checked below on every call; only tag, category and title changes need a rescore.
+    if (profile.layout() != snapshot.layout()) {
+      refreshLater(key);
+    }
+    List<BasketSummaryView> picks = new ArrayList<>(FEATURED);
+    for (UUID id : profile.picks()) {
+      BasketSummaryView basket = snapshot.find(id);
+      if (basket != null && basket.stock() > 0) {
+        picks.add(basket);
+        if (picks.size() == FEATURED) {
+          break;
+        }
+      }
+    }
+    return picks;
+  }
+
+  /**
+   * Called when the customer places an order; their picks are recomputed after the transaction
+   * commits, if they are among the active customers.
+   */
+  public void orderPlaced(String email) {
+    String key = key(email);
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      refreshLater(key);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        refreshLater(key);
+      }
+    });
+  }
+
+  @PreDestroy
+  void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void refreshLater(String key) {
+    Profile existing;
+    synchronized (profiles) {
+      existing = profiles.get(key);
+    }
+    if (existing != null) {
+      computeLater(existing.userId(), key, false);
+    }
+  }
+
+  /**
+   * Computes the customer's picks on the executor, once at a time per customer. A refresh
+   * ({@code insert} false) is dropped if the customer was evicted meanwhile.
+   */
+  private void computeLater(UUID userId, String key, boolean insert) {
+    if (!refreshing.add(key)) {
+      return;
+    }
+    executor.execute(() -> {
+      try {
+        Profile next = compute(userId, key, catalog.snapshot());
+        synchronized (profiles) {
+          if (insert || profiles.containsKey(key)) {
+            profiles.put(key, next);
+          }
+        }
+      } catch (RuntimeException ex) {
+        log.warn("Could not compute personalized picks for {}", key, ex);
+      } finally {
+        refreshing.remove(key);
+      }
+    });
+  }
+
+  private Profile compute(UUID userId, String key, CatalogSnapshot snapshot) {
+    Map<String, Double> tagAffinity = new HashMap<>();
+    Map<String, Double> categoryAffinity = new HashMap<>();
+    Set<UUID> bought = new HashSet<>();
+    for (PaidOrder order : orders.findRecentByCustomer(userId, key, HISTORY_ORDERS)) {
+      for (PaidOrder.Line line : order.lines()) {
+        BasketSummaryView basket = line.basketId() == null ? null : snapshot.find(line.basketId());
+        if (basket == null || !bought.add(basket.id())) {
+          continue;
+        }
+        double weight = Math.max(1, line.quantity());
+        categoryAffinity.merge(CatalogText.slugify(basket.category()), weight, Double::sum);
+        for (String tag : basket.tags()) {
+          tagAffinity.merge(CatalogText.fold(tag.trim()), weight, Double::sum);
+        }
+      }
+    }
+    if (bought.isEmpty()) {
+      return new Profile(userId, snapshot.layout(), List.of());
+    }
+
+    PriorityQueue<Scored> top = new PriorityQueue<>(Comparator.comparingDouble(Scored::score));
+    for (BasketSummaryView basket : snapshot.entries()) {
+      if (bought.contains(basket.id())) {
+        continue;
+      }
+      double score = CATEGORY_WEIGHT * categoryAffinity.getOrDefault(CatalogText.slugify(basket.category()), 0.0);
+      for (String tag : basket.tags()) {
+        score += tagAffinity.getOrDefault(CatalogText.fold(tag.trim()), 0.0);
+      }
+      if (score <= 0) {
+        continue;
+      }
+      if (top.size() < TOP_K) {
+        top.add(new Scored(basket.id(), score));
+      } else if (score > top.peek().score()) {
+        top.poll();
+        top.add(new Scored(basket.id(), score));
+      }
+    }
+    List<Scored> ranked = new ArrayList<>(top);
+    ranked.sort(Comparator.comparingDouble(Scored::score).reversed());
+    return new Profile(userId, snapshot.layout(), ranked.stream().map(Scored::basketId).toList());
+  }
+
+  private static String key(String email) {
+    return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private record Scored(UUID basketId, double score) {}
+
+  private record Profile(UUID userId, Object layout, List<UUID> picks) {}
+}
@@ -18,6 +18,14 @@ public interface RecommendationStrategy {
    */
   List<BasketSummaryView> featured(RecommendationContext context);
 
+  /**
+   * Changes whenever the strategy's own inputs (configuration, counters) change in a way that
+   * affects {@link #featured}; catalog changes are tracked separately.
+   */
+  default long revision() {
+    return 0;
+  }
+
   /**
    * Simple name that can be logged/inspected.
    */
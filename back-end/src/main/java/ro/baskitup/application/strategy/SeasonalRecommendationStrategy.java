@@ -4,84 +4,121 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
-import ro.baskitup.adapters.persistence.BasketEntity;
-import ro.baskitup.adapters.persistence.BasketRepository;
-import ro.baskitup.application.services.BasketMapper;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogListener;
+import ro.baskitup.application.catalog.CatalogSnapshot;
 import ro.baskitup.domain.view.BasketSummaryView;
 
-import java.time.LocalDate;
-import java.time.Month;
-import java.util.Comparator;
-import java.util.EnumMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Stream;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Picks the newest baskets matching the theme of the current season. Theme membership is worked
+ * out when a basket changes (or the keywords are reloaded), so a request only checks a bit per
+ * basket.
+ */
 @Component
 @Order(0)
-public class SeasonalRecommendationStrategy implements RecommendationStrategy {
+public class SeasonalRecommendationStrategy implements RecommendationStrategy, CatalogListener {
   private static final Logger log = LoggerFactory.getLogger(SeasonalRecommendationStrategy.class);
 
-  private final BasketRepository baskets;
-  private final BasketMapper mapper;
-  private final Map<SeasonalTheme, List<String>> keywordMap = new EnumMap<>(SeasonalTheme.class);
+  private final CatalogIndex catalog;
+  private final SeasonalThemes themes;
+  private volatile Membership membership;
 
-  public SeasonalRecommendationStrategy(BasketRepository baskets, BasketMapper mapper) {
-    this.baskets = baskets;
-    this.mapper = mapper;
-    keywordMap.put(SeasonalTheme.CHRISTMAS, List.of("craciun", "christmas", "winter", "holiday", "sarbatori"));
-    keywordMap.put(SeasonalTheme.VALENTINES, List.of("valentine", "dragoste", "love", "romantic", "hearts"));
-    keywordMap.put(SeasonalTheme.EASTER, List.of("paste", "easter", "martisor", "spring", "primavara", "bunny"));
-    keywordMap.put(SeasonalTheme.SUMMER, List.of("summer", "vara", "fructe", "fresh", "tropical"));
+  public SeasonalRecommendationStrategy(CatalogIndex catalog, SeasonalThemes themes) {
+    this.catalog = catalog;
+    this.themes = themes;
   }
 
   @Override
   public List<BasketSummaryView> featured(RecommendationContext context) {
-    SeasonalTheme theme = determineTheme(context.date());
-    List<String> keywords = keywordMap.getOrDefault(theme, List.of());
-    List<BasketSummaryView> picks = baskets.findAll().stream()
-        .filter(b -> matchesTheme(b, keywords))
-        .sorted(Comparator.comparing(BasketEntity::getCreatedAt).reversed())
-        .limit(4)
-        .map(mapper::toSummary)
-        .toList();
+    SeasonalTheme theme = SeasonalTheme.of(context.date());
+    CatalogSnapshot snapshot = catalog.snapshot();
+    Membership current = membership(snapshot);
+    int bit = 1 << theme.ordinal();
+    List<BasketSummaryView> picks = new ArrayList<>(4);
+    for (BasketSummaryView basket : snapshot.entries()) {
+      if ((current.themes().getOrDefault(basket.id(), 0) & bit) != 0) {
+        picks.add(basket);
+        if (picks.size() == 4) {
+          break;
+        }
+      }
+    }
     if (!picks.isEmpty()) {
       log.debug("Seasonal strategy selected theme {} and returned {} baskets", theme, picks.size());
     }
     return picks;
   }
 
-  private SeasonalTheme determineTheme(LocalDate date) {
-    Month month = date.getMonth();
-    if (month == Month.NOVEMBER || month == Month.DECEMBER) {
-      return SeasonalTheme.CHRISTMAS;
+  @Override
+  public long revision() {
+    return themes.revision();
+  }
+
+  @Override
+  public synchronized void catalogLoaded(CatalogSnapshot snapshot) {
+    membership = compute(snapshot, themes.revision());
+  }
+
+  @Override
+  public synchronized void basketChanged(BasketSummaryView previous, BasketSummaryView current, CatalogSnapshot snapshot) {
+    Membership existing = membership;
+    if (existing == null || existing.revision() != themes.revision()) {
+      membership = compute(snapshot, themes.revision());
+      return;
     }
-    if (month == Month.JANUARY || month == Month.FEBRUARY) {
-      return SeasonalTheme.VALENTINES;
+    if (current == null) {
+      existing.themes().remove(previous.id());
+    } else {
+      existing.themes().put(current.id(), mask(current, themes.matchers()));
     }
-    if (month == Month.MARCH || month == Month.APRIL) {
-      return SeasonalTheme.EASTER;
+  }
+
+  private Membership membership(CatalogSnapshot snapshot) {
+    long revision = themes.revision();
+    Membership current = membership;
+    if (current != null && current.revision() == revision) {
+      return current;
     }
-    if (month == Month.JUNE || month == Month.JULY || month == Month.AUGUST) {
-      return SeasonalTheme.SUMMER;
+    synchronized (this) {
+      if (membership == null || membership.revision() != revision) {
+        membership = compute(snapshot, revision);
+      }
+      return membership;
     }
-    return SeasonalTheme.CLASSIC;
   }
 
-  private boolean matchesTheme(BasketEntity entity, List<String> keywords) {
-    if (keywords.isEmpty()) {
-      return false;
+  private Membership compute(CatalogSnapshot snapshot, long revision) {
+    Map<SeasonalTheme, KeywordMatcher> matchers = themes.matchers();
+    Map<UUID, Integer> masks = new ConcurrentHashMap<>(snapshot.size() * 2);
+    for (BasketSummaryView basket : snapshot.entries()) {
+      int mask = mask(basket, matchers);
+      if (mask != 0) {
+        masks.put(basket.id(), mask);
+      }
     }
-    String haystack = Stream.of(entity.getTitle(), entity.getPrompt(), entity.getCategory(), String.join(" ", entity.getTags()))
-        .filter(StringUtils::hasText)
-        .map(value -> value.toLowerCase(Locale.ROOT))
-        .reduce("", (acc, value) -> acc + " " + value);
-    return keywords.stream().anyMatch(keyword -> haystack.contains(keyword.toLowerCase(Locale.ROOT)));
+    return new Membership(revision, masks);
   }
 
-  private enum SeasonalTheme {
-    CHRISTMAS, VALENTINES, EASTER, SUMMER, CLASSIC
+  private static int mask(BasketSummaryView basket, Map<SeasonalTheme, KeywordMatcher> matchers) {
+    String tags = String.join(" ", basket.tags());
+    int mask = 0;
+    for (Map.Entry<SeasonalTheme, KeywordMatcher> entry : matchers.entrySet()) {
+      if (entry.getValue().matchesAny(basket.title(), basket.prompt(), basket.category(), tags)) {
+        mask |= 1 << entry.getKey().ordinal();
+      }
+    }
+    return mask;
   }
+
+  /**
+   * Theme bit masks by basket id, for one revision of the keywords. Baskets without a theme are
+   * left out.
+   */
+  private record Membership(long revision, Map<UUID, Integer> themes) {}
 }
@@ -0,0 +1,25 @@
+package ro.baskitup.application.strategy;
+
+import java.time.LocalDate;
+import java.time.Month;
+
+enum SeasonalTheme {
+  CHRISTMAS, VALENTINES, EASTER, SUMMER, CLASSIC;
+
+  static SeasonalTheme of(LocalDate date) {
+    Month month = date.getMonth();
+    if (month == Month.NOVEMBER || month == Month.DECEMBER) {
+      return CHRISTMAS;
+    }
+    if (month == Month.JANUARY || month == Month.FEBRUARY) {
+      return VALENTINES;
+    }
+    if (month == Month.MARCH || month == Month.APRIL) {
+      return EASTER;
+    }
+    if (month == Month.JUNE || month == Month.JULY || month == Month.AUGUST) {
+      return SUMMER;
+    }
+    return CLASSIC;
+  }
+}
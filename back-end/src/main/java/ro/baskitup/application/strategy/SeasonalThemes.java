@@ -0,0 +1,113 @@
+package ro.baskitup.application.strategy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Seasonal keyword lists, read from {@code app.recommendations.seasonal-themes} and compiled into
+ * one {@link KeywordMatcher} per theme. The file is re-checked at most once per interval and
+ * reloaded when its modification time changes; a file that fails to load keeps the previous
+ * keywords in place.
+ */
+@Component
+public class SeasonalThemes {
+  private static final Logger log = LoggerFactory.getLogger(SeasonalThemes.class);
+
+  private final Resource resource;
+  private final long checkIntervalNanos;
+  private volatile Compiled compiled;
+  private volatile long nextCheck;
+
+  public SeasonalThemes(
+      ResourceLoader resources,
+      @Value("${app.recommendations.seasonal-themes:classpath:seasonal-themes.properties}") String location,
+      @Value("${app.recommendations.seasonal-themes-check-interval:30s}") Duration checkInterval
+  ) {
+    this.resource = resources.getResource(location);
+    this.checkIntervalNanos = checkInterval.toNanos();
+    try {
+      this.compiled = load(1, lastModified());
+    } catch (IOException ex) {
+      throw new IllegalStateException("Could not read seasonal themes from " + location, ex);
+    }
+    this.nextCheck = System.nanoTime() + checkIntervalNanos;
+  }
+
+  /**
+   * Bumped on every reload; the caller should drop anything derived from older keywords.
+   */
+  public long revision() {
+    refreshIfDue();
+    return compiled.revision();
+  }
+
+  Map<SeasonalTheme, KeywordMatcher> matchers() {
+    refreshIfDue();
+    return compiled.matchers();
+  }
+
+  private void refreshIfDue() {
+    if (System.nanoTime() - nextCheck < 0) {
+      return;
+    }
+    synchronized (this) {
+      if (System.nanoTime() - nextCheck < 0) {
+        return;
+      }
+      nextCheck = System.nanoTime() + checkIntervalNanos;
+      long modified = lastModified();
+      if (modified == compiled.lastModified()) {
+        return;
+      }
+      try {
+        compiled = load(compiled.revision() + 1, modified);
+        log.info("Seasonal themes reloaded from {} (revision {})", resource.getDescription(), compiled.revision());
+      } catch (IOException | RuntimeException ex) {
+        log.warn("Could not reload seasonal themes from {}, keeping revision {}", resource.getDescription(),
+            compiled.revision(), ex);
+      }
+    }
+  }
+
+  private Compiled load(long revision, long modified) throws IOException {
+    Properties properties = new Properties();
+    try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    Map<SeasonalTheme, KeywordMatcher> matchers = new EnumMap<>(SeasonalTheme.class);
+    for (SeasonalTheme theme : SeasonalTheme.values()) {
+      String value = properties.getProperty(theme.name().toLowerCase(Locale.ROOT), "");
+      List<String> keywords = Arrays.stream(value.split(",")).filter(StringUtils::hasText).toList();
+      matchers.put(theme, KeywordMatcher.compile(keywords));
+    }
+    return new Compiled(revision, modified, matchers);
+  }
+
+  private long lastModified() {
+    try {
+      return resource.lastModified();
+    } catch (IOException ex) {
+      // Resources inside a jar have no modification time; they are loaded once.
+      return 0L;
+    }
+  }
+
+  private record Compiled(long revision, long lastModified, Map<SeasonalTheme, KeywordMatcher> matchers) {}
+}
@@ -0,0 +1,297 @@
+package ro.baskitup.application.strategy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ro.baskitup.adapters.persistence.PaidOrder;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogSnapshot;
+import ro.baskitup.application.services.PurchaseListener;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Features the baskets bought most in the recent past. Purchases feed a Space-Saving sketch of
+ * fixed capacity whose weights decay exponentially with a configurable half-life, so memory does
+ * not grow with the catalog and old bestsellers fade out.
+ *
+ * <p>Decay uses a landmark: a purchase at time {@code t} adds {@code 2^((t - landmark) / halfLife)},
+ * so weights never have to be touched as time passes and their order is the decayed order. The
+ * landmark is moved forward (rescaling every weight) before the factors get large.
+ *
+ * <p>Producers only append to a lock-free queue; whichever thread finds the sketch idle drains
+ * it and publishes an immutable ranking, which {@link #featured} reads without locking. The
+ * sketch is checkpointed to a file so a restart keeps the trends.
+ */
+@Component
+@Order(50)
+public class TrendingRecommendationStrategy implements RecommendationStrategy, PurchaseListener {
+  private static final Logger log = LoggerFactory.getLogger(TrendingRecommendationStrategy.class);
+  private static final int FEATURED = 4;
+  private static final double MAX_EXPONENT = 32;
+
+  private final CatalogIndex catalog;
+  private final ObjectMapper objectMapper;
+  private final double halfLifeMillis;
+  private final Path checkpoint;
+  private final Queue<PaidOrder> inbox = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean draining = new AtomicBoolean();
+  private final Sketch sketch;
+  private final ScheduledExecutorService checkpoints;
+  private volatile Ranking ranking = new Ranking(0, List.of());
+
+  public TrendingRecommendationStrategy(
+      CatalogIndex catalog,
+      ObjectMapper objectMapper,
+      @Value("${app.recommendations.trending-capacity:256}") int capacity,
+      @Value("${app.recommendations.trending-half-life:24h}") Duration halfLife,
+      @Value("${app.recommendations.trending-checkpoint:}") String checkpoint,
+      @Value("${app.recommendations.trending-checkpoint-interval:5m}") Duration checkpointInterval
+  ) {
+    this.catalog = catalog;
+    this.objectMapper = objectMapper;
+    this.halfLifeMillis = halfLife.toMillis();
+    this.checkpoint = StringUtils.hasText(checkpoint) ? Path.of(checkpoint) : null;
+    this.sketch = new Sketch(capacity);
+    restore();
+    publish();
+    if (this.checkpoint == null) {
+      this.checkpoints = null;
+    } else {
+      this.checkpoints = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "trending-checkpoint");
+        thread.setDaemon(true);
+        return thread;
+      });
+      long interval = checkpointInterval.toMillis();
+      checkpoints.scheduleWithFixedDelay(this::checkpoint, interval, interval, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  @Override
+  public List<BasketSummaryView> featured(RecommendationContext context) {
+    CatalogSnapshot snapshot = catalog.snapshot();
+    List<BasketSummaryView> picks = new ArrayList<>(FEATURED);
+    for (UUID id : ranking.baskets()) {
+      BasketSummaryView basket = snapshot.find(id);
+      if (basket != null && basket.stock() > 0) {
+        picks.add(basket);
+        if (picks.size() == FEATURED) {
+          break;
+        }
+      }
+    }
+    return picks;
+  }
+
+  @Override
+  public long revision() {
+    return ranking.revision();
+  }
+
+  @Override
+  public void purchased(PaidOrder order) {
+    inbox.add(order);
+    // Whoever finds the sketch idle folds in everything queued so far, including other threads' orders.
+    while (!inbox.isEmpty() && draining.compareAndSet(false, true)) {
+      try {
+        PaidOrder next;
+        while ((next = inbox.poll()) != null) {
+          long at = next.paidAt() == null ? System.currentTimeMillis() : next.paidAt().toEpochMilli();
+          for (PaidOrder.Line line : next.lines()) {
+            if (line.basketId() != null) {
+              sketch.add(line.basketId(), Math.max(1, line.quantity()), at);
+            }
+          }
+        }
+        publish();
+      } finally {
+        draining.set(false);
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    if (checkpoints != null) {
+      checkpoints.shutdownNow();
+      checkpoint();
+    }
+  }
+
+  /**
+   * Must be called by the draining thread (or before the bean is published).
+   */
+  private void publish() {
+    List<UUID> ordered = sketch.ranked();
+    Ranking current = ranking;
+    if (!ordered.equals(current.baskets())) {
+      ranking = new Ranking(current.revision() + 1, ordered);
+    }
+  }
+
+  private void checkpoint() {
+    // Take the sketch like a producer would, so the copy is consistent.
+    while (!draining.compareAndSet(false, true)) {
+      Thread.onSpinWait();
+    }
+    Checkpoint state;
+    try {
+      state = sketch.checkpoint();
+    } finally {
+      draining.set(false);
+    }
+    try {
+      Path parent = checkpoint.toAbsolutePath().getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+      objectMapper.writeValue(temp.toFile(), state);
+      Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Could not checkpoint trending counters to {}", checkpoint, ex);
+    }
+  }
+
+  private void restore() {
+    if (checkpoint == null || !Files.isRegularFile(checkpoint)) {
+      return;
+    }
+    try {
+      Checkpoint state = objectMapper.readValue(checkpoint.toFile(), Checkpoint.class);
+      sketch.restore(state);
+      log.info("Restored {} trending counters from {}", state.counters().size(), checkpoint);
+    } catch (IOException | RuntimeException ex) {
+      log.warn("Could not restore trending counters from {}, starting empty", checkpoint, ex);
+    }
+  }
+
+  private record Ranking(long revision, List<UUID> baskets) {}
+
+  record Checkpoint(long landmark, List<Counter> counters) {
+    record Counter(UUID basketId, double weight, double error) {}
+  }
+
+  /**
+   * Space-Saving over decayed weights. Only the draining thread touches it.
+   */
+  private final class Sketch {
+    private final UUID[] keys;
+    private final double[] weights;
+    private final double[] errors;
+    private final Map<UUID, Integer> slots;
+    private int size;
+    private long landmark = System.currentTimeMillis();
+
+    Sketch(int capacity) {
+      keys = new UUID[capacity];
+      weights = new double[capacity];
+      errors = new double[capacity];
+      slots = new HashMap<>(capacity * 2);
+    }
+
+    void add(UUID basketId, int quantity, long at) {
+      double exponent = (at - landmark) / halfLifeMillis;
+      if (exponent > MAX_EXPONENT) {
+        rebase(at);
+        exponent = 0;
+      }
+      double weight = quantity * Math.pow(2, exponent);
+      Integer slot = slots.get(basketId);
+      if (slot != null) {
+        weights[slot] += weight;
+        return;
+      }
+      if (size < keys.length) {
+        put(size++, basketId, weight, 0);
+        return;
+      }
+      // Full: the lightest counter is handed over and its weight becomes the newcomer's error bound.
+      int lightest = 0;
+      for (int i = 1; i < size; i++) {
+        if (weights[i] < weights[lightest]) {
+          lightest = i;
+        }
+      }
+      slots.remove(keys[lightest]);
+      put(lightest, basketId, weights[lightest] + weight, weights[lightest]);
+    }
+
+    /**
+     * Tracked baskets by weight, heaviest first; counters that are mostly error are left out.
+     */
+    List<UUID> ranked() {
+      Integer[] order = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        order[i] = i;
+      }
+      Arrays.sort(order, Comparator.comparingDouble((Integer i) -> -weights[i]));
+      List<UUID> out = new ArrayList<>(size);
+      for (int i : order) {
+        if (weights[i] - errors[i] > errors[i]) {
+          out.add(keys[i]);
+        }
+      }
+      return List.copyOf(out);
+    }
+
+    Checkpoint checkpoint() {
+      List<Checkpoint.Counter> counters = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        counters.add(new Checkpoint.Counter(keys[i], weights[i], errors[i]));
+      }
+      return new Checkpoint(landmark, counters);
+    }
+
+    void restore(Checkpoint state) {
+      landmark = state.landmark();
+      for (Checkpoint.Counter counter : state.counters()) {
+        if (size == keys.length) {
+          break;
+        }
+        put(size++, counter.basketId(), counter.weight(), counter.error());
+      }
+      rebase(Math.max(landmark, System.currentTimeMillis()));
+    }
+
+    private void put(int slot, UUID basketId, double weight, double error) {
+      keys[slot] = basketId;
+      weights[slot] = weight;
+      errors[slot] = error;
+      slots.put(basketId, slot);
+    }
+
+    private void rebase(long now) {
+      double scale = Math.pow(2, -(now - landmark) / halfLifeMillis);
+      for (int i = 0; i < size; i++) {
+        weights[i] *= scale;
+        errors[i] *= scale;
+      }
+      landmark = now;
+    }
+  }
+}
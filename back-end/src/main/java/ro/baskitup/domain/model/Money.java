@@ -1,27 +1,198 @@
 package ro.baskitup.domain.model;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.Objects;
+import java.math.RoundingMode;
 
-public class Money {
-  private BigDecimal amount;
-  private String currency;
+/**
+ * Immutable amount in minor units (bani) of a two-decimal currency. Sums and per-line totals are
+ * plain {@code long} arithmetic (overflow throws); rounding only happens where it is asked for
+ * explicitly, as with VAT. On the wire and in the database it stays a decimal number, so the JSON
+ * and the {@code numeric(10,2)} columns keep their shape.
+ */
+@JsonSerialize(using = Money.Writer.class)
+@JsonDeserialize(using = Money.Reader.class)
+public final class Money implements Comparable<Money> {
+  public static final String RON = "RON";
+  public static final Money ZERO = new Money(0, RON);
+  private static final int SCALE = 2;
+  private static final long[] POWERS_OF_TEN = {
+      1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L
+  };
 
-  public Money() { }
-  public Money(BigDecimal amount, String currency) {
-    this.amount = amount;
+  private final long minor;
+  private final String currency;
+
+  private Money(long minor, String currency) {
+    this.minor = minor;
     this.currency = currency;
   }
-  public BigDecimal getAmount() { return amount; }
-  public void setAmount(BigDecimal amount) { this.amount = amount; }
-  public String getCurrency() { return currency; }
-  public void setCurrency(String currency) { this.currency = currency; }
 
-  @Override public boolean equals(Object o) {
+  public static Money ofMinor(long minor) {
+    return minor == 0 ? ZERO : new Money(minor, RON);
+  }
+
+  public static Money ofMinor(long minor, String currency) {
+    return RON.equals(currency) ? ofMinor(minor) : new Money(minor, currency);
+  }
+
+  /**
+   * Converts a decimal amount, rounding half-up to the minor unit; {@code null} is zero.
+   */
+  public static Money of(BigDecimal amount) {
+    return of(amount, RON);
+  }
+
+  public static Money of(BigDecimal amount, String currency) {
+    if (amount == null) {
+      return ofMinor(0, currency);
+    }
+    // scaleByPowerOfTen keeps a compact value compact; unscaledValue() would build a BigInteger.
+    return ofMinor(amount.setScale(SCALE, RoundingMode.HALF_UP).scaleByPowerOfTen(SCALE).longValueExact(), currency);
+  }
+
+  public long minor() {
+    return minor;
+  }
+
+  public String currency() {
+    return currency;
+  }
+
+  public Money plus(Money other) {
+    return other.minor == 0 ? this : ofMinor(Math.addExact(minor, same(other).minor), currency);
+  }
+
+  public Money minus(Money other) {
+    return other.minor == 0 ? this : ofMinor(Math.subtractExact(minor, same(other).minor), currency);
+  }
+
+  public Money times(int quantity) {
+    return quantity == 1 ? this : ofMinor(Math.multiplyExact(minor, (long) quantity), currency);
+  }
+
+  /**
+   * This amount scaled by {@code rate} (for example a VAT rate of {@code 0.19}), rounded to the
+   * minor unit with {@code rounding}.
+   */
+  public Money times(BigDecimal rate, RoundingMode rounding) {
+    int scale = rate.scale();
+    if (scale >= 0 && scale < POWERS_OF_TEN.length && rate.precision() <= 18) {
+      // Rates like 0.19 fit a long: multiply and round in long arithmetic, no intermediate decimals.
+      long unscaled = rate.scaleByPowerOfTen(scale).longValueExact();
+      long product = minor * unscaled;
+      long high = Math.multiplyHigh(minor, unscaled);
+      if ((high == 0 && product >= 0) || (high == -1 && product < 0)) {
+        return ofMinor(divide(product, POWERS_OF_TEN[scale], rounding), currency);
+      }
+    }
+    return ofMinor(BigDecimal.valueOf(minor).multiply(rate).setScale(0, rounding).longValueExact(), currency);
+  }
+
+  public boolean isZero() {
+    return minor == 0;
+  }
+
+  public BigDecimal toBigDecimal() {
+    return BigDecimal.valueOf(minor, SCALE);
+  }
+
+  @Override
+  public int compareTo(Money other) {
+    return Long.compare(minor, same(other).minor);
+  }
+
+  @Override
+  public boolean equals(Object o) {
     if (this == o) return true;
-    if (!(o instanceof Money)) return false;
-    Money money = (Money) o;
-    return Objects.equals(amount, money.amount) && Objects.equals(currency, money.currency);
+    if (!(o instanceof Money money)) return false;
+    return minor == money.minor && currency.equals(money.currency);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(minor) * 31 + currency.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return toBigDecimal().toPlainString() + " " + currency;
+  }
+
+  /**
+   * {@code dividend / divisor} rounded with {@code rounding}, as {@link BigDecimal#setScale} would.
+   */
+  private static long divide(long dividend, long divisor, RoundingMode rounding) {
+    long quotient = dividend / divisor;
+    long remainder = dividend % divisor;
+    if (remainder == 0) {
+      return quotient;
+    }
+    int sign = dividend < 0 ? -1 : 1;
+    int half = Long.compare(Math.abs(remainder) * 2, divisor);
+    boolean away = switch (rounding) {
+      case UP -> true;
+      case DOWN -> false;
+      case CEILING -> sign > 0;
+      case FLOOR -> sign < 0;
+      case HALF_UP -> half >= 0;
+      case HALF_DOWN -> half > 0;
+      case HALF_EVEN -> half > 0 || (half == 0 && (quotient & 1) != 0);
+      case UNNECESSARY -> throw new ArithmeticException("Rounding necessary");
+    };
+    return away ? quotient + sign : quotient;
+  }
+
+  private Money same(Money other) {
+    if (!currency.equals(other.currency)) {
+      throw new IllegalArgumentException("Currency mismatch: " + currency + " vs " + other.currency);
+    }
+    return other;
+  }
+
+  static final class Writer extends StdSerializer<Money> {
+    private static final long serialVersionUID = 1L;
+
+    Writer() {
+      super(Money.class);
+    }
+
+    @Override
+    public void serialize(Money value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+      gen.writeNumber(value.toBigDecimal());
+    }
+  }
+
+  static final class Reader extends StdDeserializer<Money> {
+    private static final long serialVersionUID = 1L;
+
+    Reader() {
+      super(Money.class);
+    }
+
+    @Override
+    public Money deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+      if (p.currentToken() == JsonToken.VALUE_NUMBER_INT || p.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+        return Money.of(p.getDecimalValue());
+      }
+      String text = p.getValueAsString();
+      if (text == null || text.isBlank()) {
+        return null;
+      }
+      try {
+        return Money.of(new BigDecimal(text.trim()));
+      } catch (NumberFormatException ex) {
+        return (Money) ctxt.handleWeirdStringValue(Money.class, text, "not a decimal amount");
+      }
+    }
   }
-  @Override public int hashCode() { return Objects.hash(amount, currency); }
-}
\ No newline at end of file
+}
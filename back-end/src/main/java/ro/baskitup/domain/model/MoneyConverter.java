@@ -0,0 +1,22 @@
+package ro.baskitup.domain.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import java.math.BigDecimal;
+
+/**
+ * Stores {@link Money} in the existing {@code numeric(10,2)} columns. The currency lives in its
+ * own column on the order, so amounts read back are in {@link Money#RON}.
+ */
+@Converter(autoApply = true)
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+  @Override
+  public BigDecimal convertToDatabaseColumn(Money attribute) {
+    return attribute == null ? null : attribute.toBigDecimal();
+  }
+
+  @Override
+  public Money convertToEntityAttribute(BigDecimal dbData) {
+    return dbData == null ? null : Money.of(dbData);
+  }
+}
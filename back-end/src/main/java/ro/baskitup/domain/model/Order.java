@@ -15,7 +15,6 @@ import jakarta.persistence.PostLoad;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.Transient;
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -58,13 +57,17 @@ public class Order {
   private String userKey;
 
   @Column(name = "total_amount", precision = 10, scale = 2, nullable = false)
-  private BigDecimal totalAmount = BigDecimal.ZERO;
+  private Money totalAmount = Money.ZERO;
 
   @Column(name = "vat_amount", precision = 10, scale = 2, nullable = false)
-  private BigDecimal vatAmount = BigDecimal.ZERO;
+  private Money vatAmount = Money.ZERO;
 
   @Column(name = "shipping_fee", precision = 10, scale = 2, nullable = false)
-  private BigDecimal shippingFee = BigDecimal.ZERO;
+  private Money shippingFee = Money.ZERO;
+
+  /** Promotions taken off the items, before VAT; {@code totalAmount} is already net of it. */
+  @Column(name = "discount_amount", precision = 10, scale = 2)
+  private Money discountAmount = Money.ZERO;
 
   @Column(length = 3, nullable = false)
   private String currency = "RON";
@@ -181,30 +184,38 @@ public class Order {
     this.userKey = userKey;
   }
 
-  public BigDecimal getTotalAmount() {
+  public Money getTotalAmount() {
     return totalAmount;
   }
 
-  public void setTotalAmount(BigDecimal totalAmount) {
+  public void setTotalAmount(Money totalAmount) {
     this.totalAmount = totalAmount;
   }
 
-  public BigDecimal getVatAmount() {
+  public Money getVatAmount() {
     return vatAmount;
   }
 
-  public void setVatAmount(BigDecimal vatAmount) {
+  public void setVatAmount(Money vatAmount) {
     this.vatAmount = vatAmount;
   }
 
-  public BigDecimal getShippingFee() {
+  public Money getShippingFee() {
     return shippingFee;
   }
 
-  public void setShippingFee(BigDecimal shippingFee) {
+  public void setShippingFee(Money shippingFee) {
     this.shippingFee = shippingFee;
   }
 
+  public Money getDiscountAmount() {
+    return discountAmount;
+  }
+
+  public void setDiscountAmount(Money discountAmount) {
+    this.discountAmount = discountAmount;
+  }
+
   public String getCurrency() {
     return currency;
   }
@@ -9,7 +9,6 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 
-import java.math.BigDecimal;
 import java.util.UUID;
 
 @Entity
@@ -31,7 +30,7 @@ public class OrderItem {
   private String titleSnapshot;
 
   @Column(nullable = false, precision = 10, scale = 2)
-  private BigDecimal unitAmount;
+  private Money unitAmount;
 
   @Column(nullable = false)
   private Integer quantity;
@@ -68,11 +67,11 @@ public class OrderItem {
     this.titleSnapshot = titleSnapshot;
   }
 
-  public BigDecimal getUnitAmount() {
+  public Money getUnitAmount() {
     return unitAmount;
   }
 
-  public void setUnitAmount(BigDecimal unitAmount) {
+  public void setUnitAmount(Money unitAmount) {
     this.unitAmount = unitAmount;
   }
 
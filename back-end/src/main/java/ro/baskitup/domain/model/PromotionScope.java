@@ -0,0 +1,12 @@
+package ro.baskitup.domain.model;
+
+public enum PromotionScope {
+  /** One basket, by id. */
+  BASKET,
+  /** Every basket of a category, by category slug. */
+  CATEGORY,
+  /** Every basket carrying a tag. */
+  TAG,
+  /** The whole catalog. */
+  ALL
+}
@@ -0,0 +1,10 @@
+package ro.baskitup.domain.model;
+
+public enum PromotionType {
+  /** {@code percent} off the line. */
+  PERCENTAGE,
+  /** {@code amount} off every unit, never below zero. */
+  FIXED,
+  /** For every {@code buyQuantity + freeQuantity} units, {@code freeQuantity} are free. */
+  BUY_X_GET_Y
+}
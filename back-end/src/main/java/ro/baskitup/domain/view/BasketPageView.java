@@ -0,0 +1,10 @@
+package ro.baskitup.domain.view;
+
+import java.util.List;
+
+public record BasketPageView(
+    List<BasketSummaryView> items,
+    String nextCursor,
+    CatalogFacetsView facets
+) {
+}
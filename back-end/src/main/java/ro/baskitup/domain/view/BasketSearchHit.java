@@ -0,0 +1,7 @@
+package ro.baskitup.domain.view;
+
+public record BasketSearchHit(
+    BasketSummaryView basket,
+    double score
+) {
+}
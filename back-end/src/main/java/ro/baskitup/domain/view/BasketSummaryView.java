@@ -18,4 +18,7 @@ public record BasketSummaryView(
     Instant createdAt,
     Instant updatedAt
 ) {
+  public BasketSummaryView withStock(int units) {
+    return new BasketSummaryView(id, slug, title, category, prompt, tags, price, units, heroImage, createdAt, updatedAt);
+  }
 }
@@ -0,0 +1,11 @@
+package ro.baskitup.domain.view;
+
+import java.util.List;
+
+public record CatalogFacetsView(
+    List<Bucket> categories,
+    List<Bucket> tags,
+    List<Bucket> priceBands
+) {
+  public record Bucket(String value, String label, int count) {}
+}
@@ -1,8 +1,8 @@
 package ro.baskitup.domain.view;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
+import ro.baskitup.domain.model.Money;
 
 public record OrderView(
     UUID id,
@@ -18,7 +18,7 @@ public record OrderView(
 ) {
   public record Customer(String name, String email, String phone, String address) {}
 
-  public record Totals(BigDecimal subtotal, BigDecimal shipping, BigDecimal vat, BigDecimal total) {}
+  public record Totals(Money subtotal, Money discount, Money shipping, Money vat, Money total) {}
 
-  public record Item(UUID id, String slug, String title, BigDecimal price, int quantity, String heroImage) {}
+  public record Item(UUID id, String slug, String title, Money price, int quantity, String heroImage) {}
 }
@@ -0,0 +1,24 @@
+package ro.baskitup.domain.view;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+import ro.baskitup.domain.model.Money;
+import ro.baskitup.domain.model.PromotionScope;
+import ro.baskitup.domain.model.PromotionType;
+
+public record PromotionView(
+    UUID id,
+    String label,
+    PromotionType type,
+    PromotionScope scope,
+    String target,
+    BigDecimal percent,
+    Money amount,
+    Integer buyQuantity,
+    Integer freeQuantity,
+    boolean active,
+    Instant startsAt,
+    Instant endsAt
+) {
+}
@@ -0,0 +1,21 @@
+package ro.baskitup.domain.view;
+
+import java.util.List;
+
+/**
+ * Latency histogram and outcome counts of one recommendation strategy since startup.
+ */
+public record StrategyStatsView(
+    String name,
+    long budgetMillis,
+    long calls,
+    long timeouts,
+    long failures,
+    List<Bucket> latency
+) {
+  /**
+   * Calls that finished within {@code upToMillis} (and above the previous bucket); the last
+   * bucket has no upper bound and a {@code null} limit.
+   */
+  public record Bucket(Long upToMillis, long count) {}
+}
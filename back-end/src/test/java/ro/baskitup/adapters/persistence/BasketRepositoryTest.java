@@ -0,0 +1,96 @@
+package ro.baskitup.adapters.persistence;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BasketRepositoryTest {
+  private static final int BASKETS = 40;
+  private static final int TAGS_PER_BASKET = 3;
+
+  @Autowired
+  private BasketRepository baskets;
+
+  @Autowired
+  private TestEntityManager entityManager;
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    for (int i = 0; i < BASKETS; i++) {
+      BasketEntity basket = new BasketEntity();
+      basket.setSlug("cos-" + i);
+      basket.setTitle("Coș " + i);
+      basket.setCategory("Crăciun");
+      basket.setPrompt("cadou de sărbători");
+      basket.setTags(List.of("vin", "ciocolată", "tag-" + i));
+      basket.setPrice(new BigDecimal("199.00"));
+      basket.setStock(10);
+      basket.setDescription("Descriere");
+      entityManager.persist(basket);
+    }
+    entityManager.flush();
+    entityManager.clear();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void listingPageAndItsTagsTakeTwoStatements() {
+    List<BasketSummaryRow> page = baskets.findNewestSummaries(PageRequest.of(0, BASKETS));
+    List<UUID> ids = page.stream().map(BasketSummaryRow::id).toList();
+    List<Object[]> tags = baskets.findTagsByBasketIds(ids);
+
+    assertThat(page).hasSize(BASKETS);
+    assertThat(tags).hasSize(BASKETS * TAGS_PER_BASKET);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    assertThat(statistics.getEntityLoadCount()).isZero();
+    assertThat(statistics.getCollectionLoadCount()).isZero();
+  }
+
+  @Test
+  void keysetPageTakesOneStatement() {
+    List<BasketSummaryRow> first = baskets.findNewestSummaries(PageRequest.of(0, 10));
+    BasketSummaryRow last = first.get(first.size() - 1);
+    statistics.clear();
+
+    List<BasketSummaryRow> next = baskets.findNewestSummariesAfter(last.createdAt(), last.id(), PageRequest.of(0, 10));
+
+    assertThat(next).hasSize(10).doesNotContainAnyElementsOf(first);
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void editLeavesStockSoldMeanwhileAlone() {
+    BasketEntity basket = baskets.findAll().get(0);
+    entityManager.getEntityManager()
+        .createNativeQuery("update gift_baskets set stock = stock - 3 where id = ?1")
+        .setParameter(1, basket.getId())
+        .executeUpdate();
+
+    basket.setTitle("Coș nou");
+    entityManager.flush();
+    entityManager.clear();
+
+    BasketEntity reloaded = entityManager.find(BasketEntity.class, basket.getId());
+    assertThat(reloaded.getTitle()).isEqualTo("Coș nou");
+    assertThat(reloaded.getStock()).isEqualTo(7);
+  }
+}
@@ -0,0 +1,34 @@
+package ro.baskitup.adapters.persistence;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderNumberSequenceTest {
+  private final JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(
+      "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL"));
+
+  @Test
+  void blocksFollowEachOther() {
+    OrderNumberSequence sequence = new OrderNumberSequence(jdbc, 100);
+
+    long first = sequence.nextBlock();
+    assertThat(new OrderNumberSequence(jdbc, 100).nextBlock()).isEqualTo(first + 100);
+  }
+
+  @Test
+  void differentBlockSizeRefusesToStart() {
+    OrderNumberSequence sequence = new OrderNumberSequence(jdbc, 100);
+    long first = sequence.nextBlock();
+
+    assertThatThrownBy(() -> new OrderNumberSequence(jdbc, 50))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("number-block-size");
+    assertThat(sequence.nextBlock()).isEqualTo(first + 100);
+  }
+}
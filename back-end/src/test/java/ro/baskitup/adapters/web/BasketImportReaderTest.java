@@ -0,0 +1,91 @@
+package ro.baskitup.adapters.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import ro.baskitup.adapters.persistence.BasketExportRow;
+import ro.baskitup.application.services.BasketImportService.ImportRow;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BasketImportReaderTest {
+  private static final String HEADER = "title,category,prompt,price,description\n";
+  private static final String ROW = "Coș de Crăciun,Crăciun,cadou,199.00,Descriere\n";
+
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+  @Test
+  void unterminatedQuoteIsReportedWithoutBufferingTheRest() {
+    String upload = HEADER + ROW + "Coș,Crăciun,\"cadou," + "x".repeat(3 * BasketImportReader.MAX_RECORD_LENGTH);
+
+    List<ImportRow> rows = read("text/csv", upload);
+
+    assertThat(rows).hasSize(2);
+    assertThat(rows.get(0).error()).isNull();
+    assertThat(rows.get(1).line()).isEqualTo(3);
+    assertThat(rows.get(1).error()).contains("depășește");
+  }
+
+  @Test
+  void overlongCsvRecordIsSkippedAndReadingGoesOn() {
+    String description = "\"" + "rând\n".repeat(BasketImportReader.MAX_RECORD_LENGTH / 4) + "\"";
+    String upload = HEADER + "Coș,Crăciun,cadou,199.00," + description + "\n" + ROW;
+
+    List<ImportRow> rows = read("text/csv", upload);
+
+    assertThat(rows).hasSize(2);
+    assertThat(rows.get(0).error()).contains("depășește");
+    assertThat(rows.get(1).error()).isNull();
+    assertThat(rows.get(1).request().title()).isEqualTo("Coș de Crăciun");
+  }
+
+  @Test
+  void overlongNdjsonLineIsSkippedAndReadingGoesOn() {
+    String valid = """
+        {"title":"Coș","category":"Crăciun","prompt":"cadou","tags":[],"price":199.00,"stock":1,"description":"D"}
+        """;
+    String upload = "{\"title\":\"" + "x".repeat(BasketImportReader.MAX_RECORD_LENGTH) + "\"}\n" + valid;
+
+    List<ImportRow> rows = read("application/x-ndjson", upload);
+
+    assertThat(rows).hasSize(2);
+    assertThat(rows.get(0).error()).contains("depășește");
+    assertThat(rows.get(1).error()).isNull();
+    assertThat(rows.get(1).line()).isEqualTo(2);
+  }
+
+  @Test
+  void csvExportWithPipesInTagsImportsBack() throws Exception {
+    List<String> tags = List.of("vin|roșu", "cale\\spre", "ciocolată");
+    BasketExportRow exported = new BasketExportRow(UUID.randomUUID(), "cos", "Coș", "Crăciun", "cadou", tags,
+        new BigDecimal("199.00"), 3, "Descriere", null, Instant.now(), Instant.now());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BasketExportWriter writer = BasketExportWriter.of("csv", out, new ObjectMapper());
+    writer.accept(exported);
+    writer.finish();
+
+    List<ImportRow> rows = read("text/csv", out.toString(StandardCharsets.UTF_8));
+
+    assertThat(rows).hasSize(1);
+    assertThat(rows.get(0).error()).isNull();
+    assertThat(rows.get(0).request().tags()).isEqualTo(tags);
+  }
+
+  private List<ImportRow> read(String contentType, String upload) {
+    BasketImportReader reader = BasketImportReader.open(contentType,
+        new ByteArrayInputStream(upload.getBytes(StandardCharsets.UTF_8)), new ObjectMapper(), validator);
+    List<ImportRow> rows = new ArrayList<>();
+    reader.forEachRemaining(rows::add);
+    return rows;
+  }
+}
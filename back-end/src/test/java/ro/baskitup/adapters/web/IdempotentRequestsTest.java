@@ -0,0 +1,164 @@
+package ro.baskitup.adapters.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.IdempotencyKeyEntity;
+import ro.baskitup.adapters.persistence.IdempotencyKeyEntity.Status;
+import ro.baskitup.adapters.persistence.IdempotencyKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+/**
+ * Each {@link IdempotentRequests} stands for one application instance; they share only the table.
+ */
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotentRequestsTest {
+  private static final String KEY = "k-1";
+  private static final String CALLER = "email:ana@example.ro";
+  private static final Map<String, String> REQUEST = Map.of("basket", "cos-de-craciun");
+
+  @Autowired
+  private IdempotencyKeyRepository repository;
+
+  private final List<IdempotentRequests> instances = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() {
+    instances.forEach(IdempotentRequests::shutdown);
+    repository.deleteAll();
+  }
+
+  @Test
+  void twoInstancesRunTheRequestOnce() throws Exception {
+    AtomicInteger runs = new AtomicInteger();
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    List<Future<ResponseEntity<?>>> responses = new ArrayList<>();
+    for (IdempotentRequests instance : List.of(instance(Duration.ofMinutes(2)), instance(Duration.ofMinutes(2)))) {
+      responses.add(pool.submit(() -> {
+        bothStarted.countDown();
+        bothStarted.await();
+        return instance.execute(KEY, "checkout", CALLER, REQUEST, () -> {
+          sleep(300);
+          return Map.of("order", "BK-" + runs.incrementAndGet());
+        });
+      }));
+    }
+    pool.shutdown();
+
+    assertThat(json(responses.get(0).get(10, TimeUnit.SECONDS))).isEqualTo("{\"order\":\"BK-1\"}");
+    assertThat(json(responses.get(1).get(10, TimeUnit.SECONDS))).isEqualTo("{\"order\":\"BK-1\"}");
+    assertThat(runs).hasValue(1);
+    assertThat(repository.findAll()).singleElement()
+        .extracting(IdempotencyKeyEntity::getStatus).isEqualTo(Status.COMPLETED);
+  }
+
+  @Test
+  void differentRequestUnderAClaimedKeyIsRejected() {
+    IdempotentRequests first = instance(Duration.ofMinutes(2));
+    first.execute(KEY, "checkout", CALLER, REQUEST, () -> Map.of("order", "BK-1"));
+
+    ResponseStatusException ex = catchThrowableOfType(
+        () -> instance(Duration.ofMinutes(2)).execute(KEY, "checkout", CALLER, Map.of("basket", "alt-cos"),
+            () -> Map.of("order", "BK-2")),
+        ResponseStatusException.class);
+
+    assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+  }
+
+  @Test
+  void failedRequestFreesTheKey() {
+    IdempotentRequests instance = instance(Duration.ofMinutes(2));
+
+    assertThatThrownBy(() -> instance.execute(KEY, "checkout", CALLER, REQUEST, () -> {
+      throw new IllegalStateException("stoc epuizat");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(repository.count()).isZero();
+
+    ResponseEntity<?> retry = instance.execute(KEY, "checkout", CALLER, REQUEST, () -> Map.of("order", "BK-2"));
+    assertThat(json(retry)).isEqualTo("{\"order\":\"BK-2\"}");
+  }
+
+  @Test
+  void abandonedClaimIsTakenOver() {
+    IdempotentRequests crashed = instance(Duration.ofMillis(200));
+    CountDownLatch claimed = new CountDownLatch(1);
+    Thread owner = new Thread(() -> crashed.execute(KEY, "checkout", CALLER, REQUEST, () -> {
+      claimed.countDown();
+      sleep(10_000);
+      return Map.of("order", "BK-1");
+    }));
+    owner.setDaemon(true);
+    owner.start();
+    await(claimed);
+    sleep(300);
+
+    ResponseEntity<?> response = instance(Duration.ofMillis(200))
+        .execute(KEY, "checkout", CALLER, REQUEST, () -> Map.of("order", "BK-2"));
+
+    assertThat(json(response)).isEqualTo("{\"order\":\"BK-2\"}");
+    owner.interrupt();
+  }
+
+  @Test
+  void sameKeyFromAnotherCallerIsAnotherRequest() {
+    IdempotentRequests instance = instance(Duration.ofMinutes(2));
+    instance.execute(KEY, "checkout", CALLER, REQUEST, () -> Map.of("order", "BK-1"));
+
+    ResponseEntity<?> other = instance.execute(KEY, "checkout", "email:mihai@example.ro", REQUEST,
+        () -> Map.of("order", "BK-2"));
+
+    assertThat(json(other)).isEqualTo("{\"order\":\"BK-2\"}");
+    assertThat(other.getHeaders().containsKey("Idempotent-Replayed")).isFalse();
+  }
+
+  private IdempotentRequests instance(Duration pendingTimeout) {
+    IdempotentRequests instance = new IdempotentRequests(repository, new ObjectMapper(), Duration.ofHours(24),
+        pendingTimeout, 100);
+    instances.add(instance);
+    return instance;
+  }
+
+  private static String json(ResponseEntity<?> response) {
+    return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    } catch (InterruptedException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package ro.baskitup.application.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CatalogCursorTest {
+
+  @Test
+  void roundTrips() {
+    CatalogCursor cursor = new CatalogCursor(Instant.parse("2024-12-01T10:15:30.123456789Z"), UUID.randomUUID());
+
+    assertThat(CatalogCursor.decode(cursor.encode())).isEqualTo(cursor);
+  }
+
+  @Test
+  void outOfRangeTimeIsMalformed() {
+    String raw = Long.MAX_VALUE + ":0:" + UUID.randomUUID();
+    String value = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+
+    assertThatThrownBy(() -> CatalogCursor.decode(value)).isInstanceOf(IllegalArgumentException.class);
+  }
+}
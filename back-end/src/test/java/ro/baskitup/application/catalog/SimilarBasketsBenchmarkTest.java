@@ -0,0 +1,182 @@
+package ro.baskitup.application.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Recall and latency of {@link SimilarBaskets} on a synthetic 100k-basket catalog, against an exact
+ * Jaccard scan. Baskets come in clusters sharing most of their tags and prompt words, so every
+ * basket has true neighbours at 0.5 similarity or more. Recall@k counts a returned basket as a hit
+ * when its exact similarity is at least that of the k-th true neighbour, since neighbours often
+ * tie. Run with {@code mvn test -Dbenchmarks=true -Dtest=SimilarBasketsBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class SimilarBasketsBenchmarkTest {
+  private static final int BASKETS = 100_000;
+  private static final int CLUSTER_SIZE = 50;
+  private static final int VOCABULARY = 20_000;
+  private static final int QUERIES = 200;
+  private static final int LIMIT = 10;
+  private static final double NEIGHBOUR_SIMILARITY = 0.5;
+
+  @Test
+  void recallAndLatencyAt100kBaskets() {
+    SplittableRandom random = new SplittableRandom(18);
+    List<BasketSummaryView> views = new ArrayList<>(BASKETS);
+    int[][] features = new int[BASKETS][];
+    for (int cluster = 0; cluster < BASKETS / CLUSTER_SIZE; cluster++) {
+      List<String> baseTags = words(random, 6);
+      List<String> basePrompt = words(random, 8);
+      for (int member = 0; member < CLUSTER_SIZE; member++) {
+        List<String> tags = perturb(random, baseTags);
+        List<String> prompt = perturb(random, basePrompt);
+        features[views.size()] = features(tags, prompt);
+        views.add(basket(views.size(), tags, String.join(" ", prompt)));
+      }
+    }
+    CatalogSnapshot snapshot = CatalogSnapshot.build(1, views);
+    CatalogIndex catalog = mock(CatalogIndex.class);
+    when(catalog.snapshot()).thenReturn(snapshot);
+    SimilarBaskets similar = new SimilarBaskets(catalog);
+
+    similar.catalogLoaded(snapshot);
+    // Timed on the second load, once the JIT has compiled the hashing.
+    long indexStarted = System.nanoTime();
+    similar.catalogLoaded(snapshot);
+    long indexMillis = (System.nanoTime() - indexStarted) / 1_000_000;
+
+    Map<UUID, Integer> positions = new HashMap<>(BASKETS * 2);
+    for (int i = 0; i < BASKETS; i++) {
+      positions.put(views.get(i).id(), i);
+    }
+    int expected = 0;
+    int found = 0;
+    long exactNanos = 0;
+    for (int q = 0; q < QUERIES; q++) {
+      int query = random.nextInt(BASKETS);
+      long started = System.nanoTime();
+      double[] exact = exactNeighbours(features, query);
+      exactNanos += System.nanoTime() - started;
+      if (exact.length == 0) {
+        continue;
+      }
+      double kth = exact[exact.length - 1];
+      int hits = 0;
+      for (BasketSummaryView view : similar.similar(views.get(query).slug(), LIMIT)) {
+        if (jaccard(features[query], features[positions.get(view.id())]) >= kth) {
+          hits++;
+        }
+      }
+      expected += exact.length;
+      found += Math.min(hits, exact.length);
+    }
+    double recall = (double) found / expected;
+
+    for (int i = 0; i < 2_000; i++) {
+      similar.similar(views.get(random.nextInt(BASKETS)).slug(), LIMIT);
+    }
+    long[] latencies = new long[10_000];
+    for (int i = 0; i < latencies.length; i++) {
+      String slug = views.get(random.nextInt(BASKETS)).slug();
+      long started = System.nanoTime();
+      similar.similar(slug, LIMIT);
+      latencies[i] = System.nanoTime() - started;
+    }
+    Arrays.sort(latencies);
+    double p50 = latencies[latencies.length / 2] / 1e6;
+    double p99 = latencies[latencies.length * 99 / 100] / 1e6;
+
+    System.out.printf("SimilarBaskets @ %d baskets: index %d ms, recall@%d %.3f, p50 %.3f ms, p99 %.3f ms,"
+            + " exact scan %.1f ms/query%n",
+        BASKETS, indexMillis, LIMIT, recall, p50, p99, exactNanos / 1e6 / QUERIES);
+    assertThat(recall).isGreaterThanOrEqualTo(0.95);
+    assertThat(p99).isLessThan(exactNanos / 1e6 / QUERIES);
+  }
+
+  /**
+   * Exact similarities of the top {@value #LIMIT} neighbours at or above
+   * {@value #NEIGHBOUR_SIMILARITY}, best first.
+   */
+  private static double[] exactNeighbours(int[][] features, int query) {
+    List<Double> similarities = new ArrayList<>();
+    for (int other = 0; other < features.length; other++) {
+      if (other != query) {
+        double similarity = jaccard(features[query], features[other]);
+        if (similarity >= NEIGHBOUR_SIMILARITY) {
+          similarities.add(similarity);
+        }
+      }
+    }
+    similarities.sort(Comparator.reverseOrder());
+    return similarities.stream().limit(LIMIT).mapToDouble(Double::doubleValue).toArray();
+  }
+
+  private static double jaccard(int[] a, int[] b) {
+    int i = 0;
+    int j = 0;
+    int shared = 0;
+    while (i < a.length && j < b.length) {
+      if (a[i] == b[j]) {
+        shared++;
+        i++;
+        j++;
+      } else if (a[i] < b[j]) {
+        i++;
+      } else {
+        j++;
+      }
+    }
+    return (double) shared / (a.length + b.length - shared);
+  }
+
+  /**
+   * Same feature set {@link SimilarBaskets} hashes: tags and prompt words, as sorted hash codes.
+   */
+  private static int[] features(List<String> tags, List<String> prompt) {
+    Set<Integer> out = new HashSet<>();
+    tags.forEach(tag -> out.add(("t:" + tag).hashCode()));
+    prompt.forEach(word -> out.add(("p:" + word).hashCode()));
+    return out.stream().mapToInt(Integer::intValue).sorted().toArray();
+  }
+
+  /**
+   * The base words with one dropped and one or two random ones added.
+   */
+  private static List<String> perturb(SplittableRandom random, List<String> base) {
+    List<String> out = new ArrayList<>(base);
+    out.remove(random.nextInt(out.size()));
+    out.addAll(words(random, 1 + random.nextInt(2)));
+    return out;
+  }
+
+  private static List<String> words(SplittableRandom random, int count) {
+    List<String> out = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      out.add("w" + Integer.toString(100 + random.nextInt(VOCABULARY), 36));
+    }
+    return out;
+  }
+
+  private static BasketSummaryView basket(int i, List<String> tags, String prompt) {
+    return new BasketSummaryView(UUID.randomUUID(), "cos-" + i, "Coș " + i, "Cadouri", prompt, tags,
+        new BigDecimal("199.00"), 10, null, Instant.ofEpochSecond(1_700_000_000L + i), null);
+  }
+}
@@ -0,0 +1,69 @@
+package ro.baskitup.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import ro.baskitup.adapters.persistence.BasketBulkWriter;
+import ro.baskitup.adapters.persistence.BasketEntity;
+import ro.baskitup.adapters.persistence.BasketRepository;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.services.BasketImportService.ImportRow;
+import ro.baskitup.application.services.BasketService.BasketRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BasketImportServiceTest {
+
+  @Test
+  void repeatedTakenBaseLoadsItsSlugFamilyOnce() {
+    BasketRepository baskets = mock(BasketRepository.class);
+    when(baskets.findExistingSlugs(any())).thenReturn(List.of("cos-de-craciun"));
+    List<Object[]> family = new ArrayList<>();
+    family.add(new Object[] {UUID.randomUUID(), "cos-de-craciun"});
+    family.add(new Object[] {UUID.randomUUID(), "cos-de-craciun-2"});
+    when(baskets.findSlugFamily(anyString(), anyString())).thenReturn(family);
+    BasketBulkWriter writer = mock(BasketBulkWriter.class);
+    BasketImportService imports = new BasketImportService(baskets, writer, mock(BasketService.class),
+        new SlugAllocator(baskets), mock(CatalogIndex.class), mock(PlatformTransactionManager.class), 500);
+
+    List<ImportRow> rows = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      rows.add(ImportRow.valid(i + 2, new BasketRequest("Coș de Crăciun", null, "Crăciun", "cadou", List.of(),
+          new BigDecimal("199.00"), 1, "Descriere", null)));
+    }
+    imports.importAll(rows.iterator());
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<List<BasketEntity>> inserted = ArgumentCaptor.forClass(List.class);
+    verify(writer).insert(inserted.capture());
+    assertThat(inserted.getValue()).extracting(BasketEntity::getSlug).containsExactly(
+        "cos-de-craciun-1", "cos-de-craciun-3", "cos-de-craciun-4", "cos-de-craciun-5");
+    verify(baskets, times(1)).findSlugFamily(anyString(), anyString());
+  }
+
+  @Test
+  void familyHandsOutBaseFirstThenFreeSuffixes() {
+    BasketRepository baskets = mock(BasketRepository.class);
+    List<Object[]> family = new ArrayList<>();
+    family.add(new Object[] {UUID.randomUUID(), "cos-1"});
+    when(baskets.findSlugFamily("cos", "cos-%")).thenReturn(family);
+
+    SlugAllocator.Family slugs = new SlugAllocator(baskets).family("cos");
+
+    assertThat(slugs.allocate(Set.of())).isEqualTo("cos");
+    assertThat(slugs.allocate(Set.of("cos-2"))).isEqualTo("cos-3");
+    assertThat(slugs.allocate(Set.of())).isEqualTo("cos-4");
+  }
+}
@@ -0,0 +1,53 @@
+package ro.baskitup.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import ro.baskitup.adapters.persistence.BasketEntity;
+import ro.baskitup.adapters.persistence.BasketRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+
+@DataJpaTest
+class BasketServiceTest {
+  @Autowired
+  private BasketRepository baskets;
+
+  @Test
+  void duplicateSlugIsASlugCollision() {
+    baskets.saveAndFlush(basket("cos-de-craciun", "Coș de Crăciun"));
+
+    DataIntegrityViolationException ex = catchThrowableOfType(
+        () -> baskets.saveAndFlush(basket("cos-de-craciun", "Alt coș")),
+        DataIntegrityViolationException.class);
+
+    assertThat(BasketService.isSlugCollision(ex)).isTrue();
+  }
+
+  @Test
+  void otherViolationsAreNotSlugCollisions() {
+    DataIntegrityViolationException ex = catchThrowableOfType(
+        () -> baskets.saveAndFlush(basket("fara-titlu", null)),
+        DataIntegrityViolationException.class);
+
+    assertThat(BasketService.isSlugCollision(ex)).isFalse();
+  }
+
+  private static BasketEntity basket(String slug, String title) {
+    BasketEntity basket = new BasketEntity();
+    basket.setSlug(slug);
+    basket.setTitle(title);
+    basket.setCategory("Crăciun");
+    basket.setPrompt("cadou");
+    basket.setTags(List.of());
+    basket.setPrice(new BigDecimal("150.00"));
+    basket.setStock(5);
+    basket.setDescription("Descriere");
+    return basket;
+  }
+}
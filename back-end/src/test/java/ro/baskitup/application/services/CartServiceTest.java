@@ -0,0 +1,46 @@
+package ro.baskitup.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.BasketRepository;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogSnapshot;
+import ro.baskitup.application.promotions.PromotionEngine;
+import ro.baskitup.application.services.CartService.CartItemRequest;
+import ro.baskitup.application.services.CartService.ShippingMethod;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CartServiceTest {
+  private static final UUID BASKET = UUID.randomUUID();
+
+  @Test
+  void quantitiesThatOverflowWhenAddedAreRejected() {
+    CatalogIndex catalog = mock(CatalogIndex.class);
+    when(catalog.snapshot()).thenReturn(CatalogSnapshot.build(1, List.of(new BasketSummaryView(BASKET, "cos",
+        "Coș", "Crăciun", "cadou", List.of(), new BigDecimal("199.00"), 5, null, Instant.now(), null))));
+    StockLedger stock = mock(StockLedger.class);
+    when(stock.available(eq(BASKET), anyInt())).thenReturn(5);
+    CartService cart = new CartService(mock(BasketRepository.class), catalog, stock, mock(PromotionEngine.class),
+        new BigDecimal("0.19"));
+
+    ResponseStatusException ex = catchThrowableOfType(() -> cart.estimate(List.of(
+        new CartItemRequest(BASKET, Integer.MAX_VALUE),
+        new CartItemRequest(BASKET, Integer.MAX_VALUE)), ShippingMethod.STANDARD), ResponseStatusException.class);
+
+    assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+    assertThat(ex.getReason()).isEqualTo("Cantitatea este prea mare");
+  }
+}
@@ -0,0 +1,117 @@
+package ro.baskitup.application.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ro.baskitup.adapters.persistence.OrderRepository;
+import ro.baskitup.domain.model.Order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Orders stored per second, and p99 time to store one, with {@link CheckoutPipeline} group commit
+ * against one transaction per order as {@link CheckoutService} does without it. Runs on a file
+ * H2 database so each commit writes to disk. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=CheckoutPipelineBenchmarkTest}.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:file:./target/checkout-benchmark;MODE=PostgreSQL;DB_CLOSE_ON_EXIT=FALSE",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CheckoutPipelineBenchmarkTest {
+  private static final int CLIENTS = 16;
+  private static final int ORDERS = 4_000;
+  private static final int WARMUP = 500;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private OrderRepository orders;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final AtomicInteger numbers = new AtomicInteger();
+
+  @AfterEach
+  void tearDown() {
+    orders.deleteAll();
+  }
+
+  @Test
+  void groupCommitAgainstTransactionPerOrder() throws Exception {
+    TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+    Function<Order, Order> direct = order -> transactions.execute(status -> orders.save(order));
+    CheckoutPipeline pipeline = new CheckoutPipeline(transactionManager, true, 64, Duration.ofMillis(5), 1024);
+    ReflectionTestUtils.setField(pipeline, "entityManager", entityManager);
+    Function<Order, Order> grouped = order -> pipeline.submit(order).join();
+
+    try {
+      run(direct, WARMUP);
+      run(grouped, WARMUP);
+      Result perOrder = run(direct, ORDERS);
+      Result groupCommit = run(grouped, ORDERS);
+
+      System.out.printf("Checkout storage, %d clients: transaction per order %.0f orders/s p99 %.1f ms,"
+              + " group commit %.0f orders/s p99 %.1f ms%n",
+          CLIENTS, perOrder.perSecond(), perOrder.p99Millis(), groupCommit.perSecond(), groupCommit.p99Millis());
+      assertThat(orders.count()).isEqualTo(2L * (WARMUP + ORDERS));
+      assertThat(groupCommit.perSecond()).isGreaterThan(perOrder.perSecond());
+    } finally {
+      pipeline.shutdown();
+    }
+  }
+
+  private Result run(Function<Order, Order> store, int count) throws Exception {
+    ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+    long[] latencies = new long[count];
+    AtomicInteger next = new AtomicInteger();
+    long started = System.nanoTime();
+    List<Future<?>> running = new ArrayList<>();
+    for (int c = 0; c < CLIENTS; c++) {
+      running.add(clients.submit(() -> {
+        for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+          Order order = CheckoutPipelineTest.order("BK-" + numbers.incrementAndGet());
+          long begin = System.nanoTime();
+          store.apply(order);
+          latencies[i] = System.nanoTime() - begin;
+        }
+      }));
+    }
+    for (Future<?> client : running) {
+      client.get(5, TimeUnit.MINUTES);
+    }
+    long elapsed = System.nanoTime() - started;
+    clients.shutdown();
+    Arrays.sort(latencies);
+    return new Result(count * 1e9 / elapsed, latencies[count * 99 / 100] / 1e6);
+  }
+
+  private record Result(double perSecond, double p99Millis) {}
+}
@@ -0,0 +1,177 @@
+package ro.baskitup.application.services;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.OrderRepository;
+import ro.baskitup.domain.model.Money;
+import ro.baskitup.domain.model.Order;
+import ro.baskitup.domain.model.OrderItem;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CheckoutPipelineTest {
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private OrderRepository orders;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  private final List<CheckoutPipeline> pipelines = new ArrayList<>();
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    for (CheckoutPipeline pipeline : pipelines) {
+      pipeline.shutdown();
+    }
+    orders.deleteAll();
+  }
+
+  @Test
+  void failedGroupIsRetriedSoOnlyTheBadOrderFails() throws Exception {
+    CheckoutPipeline pipeline = pipeline(transactionManager, entityManager, Duration.ofMillis(300));
+    List<CompletableFuture<Order>> good = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      good.add(pipeline.submit(order("BK-" + i)));
+    }
+    CompletableFuture<Order> duplicate = pipeline.submit(order("BK-0"));
+
+    for (CompletableFuture<Order> future : good) {
+      assertThat(future.get(10, TimeUnit.SECONDS).getOrderNumber()).startsWith("BK-");
+    }
+    assertThatThrownBy(() -> duplicate.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+    assertThat(orders.count()).isEqualTo(5);
+  }
+
+  @Test
+  void writerKeepsGoingAfterAnError() throws Exception {
+    PlatformTransactionManager failingOnce = mock(PlatformTransactionManager.class);
+    when(failingOnce.getTransaction(any(TransactionDefinition.class)))
+        .thenThrow(new StackOverflowError("boom"))
+        .thenReturn(null);
+    EntityManager mockEntityManager = mock(EntityManager.class);
+    CheckoutPipeline pipeline = pipeline(failingOnce, mockEntityManager, Duration.ZERO);
+
+    CompletableFuture<Order> first = pipeline.submit(order("BK-1"));
+    assertThatThrownBy(() -> first.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+
+    Order second = order("BK-2");
+    assertThat(pipeline.submit(second).get(10, TimeUnit.SECONDS)).isSameAs(second);
+    verify(mockEntityManager).persist(second);
+  }
+
+  @Test
+  void everyAcceptedOrderSettlesWhenShutdownRacesSubmissions() throws Exception {
+    CheckoutPipeline pipeline = pipeline(transactionManager, entityManager, Duration.ofMillis(5));
+    ExecutorService clients = Executors.newFixedThreadPool(8);
+    List<Future<CompletableFuture<Order>>> submissions = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      String number = "BK-" + i;
+      submissions.add(clients.submit(() -> {
+        try {
+          return pipeline.submit(order(number));
+        } catch (ResponseStatusException refused) {
+          return null;
+        }
+      }));
+      if (i == 200) {
+        pipeline.shutdown();
+      }
+    }
+    clients.shutdown();
+
+    int accepted = 0;
+    for (Future<CompletableFuture<Order>> submission : submissions) {
+      CompletableFuture<Order> future = submission.get(10, TimeUnit.SECONDS);
+      if (future != null) {
+        future.get(10, TimeUnit.SECONDS);
+        accepted++;
+      }
+    }
+    assertThat(accepted).isPositive();
+    assertThat(orders.count()).isEqualTo(accepted);
+  }
+
+  @Test
+  void onlyAnOrderTheWriterHasNotStartedCanBeWithdrawn() throws Exception {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    PlatformTransactionManager slow = mock(PlatformTransactionManager.class);
+    when(slow.getTransaction(any(TransactionDefinition.class))).thenAnswer(invocation -> {
+      writing.countDown();
+      release.await(10, TimeUnit.SECONDS);
+      return null;
+    });
+    EntityManager mockEntityManager = mock(EntityManager.class);
+    CheckoutPipeline pipeline = pipeline(slow, mockEntityManager, Duration.ZERO);
+
+    Order inProgress = order("BK-1");
+    CompletableFuture<Order> first = pipeline.submit(inProgress);
+    assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+    Order queued = order("BK-2");
+    CompletableFuture<Order> second = pipeline.submit(queued);
+
+    assertThat(pipeline.withdraw(second)).isTrue();
+    assertThat(pipeline.withdraw(first)).isFalse();
+    release.countDown();
+
+    assertThat(first.get(10, TimeUnit.SECONDS)).isSameAs(inProgress);
+    assertThatThrownBy(() -> second.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(ResponseStatusException.class);
+    pipeline.shutdown();
+    verify(mockEntityManager, never()).persist(queued);
+  }
+
+  private CheckoutPipeline pipeline(PlatformTransactionManager transactions, EntityManager entities, Duration maxWait) {
+    CheckoutPipeline pipeline = new CheckoutPipeline(transactions, true, 64, maxWait, 1024);
+    ReflectionTestUtils.setField(pipeline, "entityManager", entities);
+    pipelines.add(pipeline);
+    return pipeline;
+  }
+
+  static Order order(String number) {
+    Order order = new Order();
+    order.setOrderNumber(number);
+    order.setCustomerName("Ana Pop");
+    order.setCustomerEmail("ana@example.ro");
+    order.setTotalAmount(Money.ofMinor(19_900));
+    OrderItem item = new OrderItem();
+    item.setBasketId(UUID.randomUUID());
+    item.setQuantity(1);
+    item.setTitleSnapshot("Coș");
+    item.setUnitAmount(Money.ofMinor(19_900));
+    order.addItem(item);
+    return order;
+  }
+}
@@ -0,0 +1,113 @@
+package ro.baskitup.application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.OrderRepository;
+import ro.baskitup.application.services.CartService.EstimateLine;
+import ro.baskitup.application.services.CartService.EstimateResult;
+import ro.baskitup.application.services.CheckoutService.AddressDto;
+import ro.baskitup.application.services.CheckoutService.CheckoutItem;
+import ro.baskitup.application.services.CheckoutService.CheckoutRequest;
+import ro.baskitup.application.strategy.PersonalizedRecommendations;
+import ro.baskitup.domain.model.Money;
+import ro.baskitup.domain.model.Order;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CheckoutServiceTest {
+  private static final UUID BASKET = UUID.randomUUID();
+
+  private final OrderRepository orders = mock(OrderRepository.class);
+  private final CartService cart = mock(CartService.class);
+  private final StockLedger stock = mock(StockLedger.class);
+  private final OrderNumbers orderNumbers = mock(OrderNumbers.class);
+  private final CheckoutPipeline pipeline = mock(CheckoutPipeline.class);
+  private CheckoutService checkout;
+
+  @BeforeEach
+  void setUp() {
+    Money price = Money.ofMinor(19_900);
+    when(cart.estimate(anyList(), any())).thenReturn(new EstimateResult(
+        List.of(new EstimateLine(BASKET, "cos", "Coș", price, 1, price)), List.of(),
+        price, Money.ZERO, CartService.STANDARD_SHIPPING, Money.ZERO, price, new BigDecimal("0.19")));
+    checkout = new CheckoutService(orders, cart, mock(PersonalizedRecommendations.class), stock, orderNumbers,
+        pipeline, mock(PlatformTransactionManager.class), Duration.ofMillis(50));
+  }
+
+  @Test
+  void noStockIsReservedWhenNoOrderNumberCanBeHandedOut() {
+    when(orderNumbers.next()).thenThrow(new IllegalStateException("sequence unavailable"));
+
+    assertThatThrownBy(() -> checkout.initCheckout(request())).isInstanceOf(IllegalStateException.class);
+
+    verifyNoInteractions(stock);
+  }
+
+  @Test
+  void reservationIsReleasedWhenTheOrderCannotBeStored() {
+    when(orderNumbers.next()).thenReturn("BK-1");
+    when(orders.save(any())).thenThrow(new IllegalStateException("database down"));
+
+    assertThatThrownBy(() -> checkout.initCheckout(request())).isInstanceOf(IllegalStateException.class);
+
+    verify(stock).reserve(any(), any());
+    verify(stock).release(any());
+  }
+
+  @Test
+  void pipelinedOrderNotCommittedInTimeIsWithdrawnWith503() {
+    when(orderNumbers.next()).thenReturn("BK-1");
+    CompletableFuture<Order> stuck = new CompletableFuture<>();
+    when(pipeline.enabled()).thenReturn(true);
+    when(pipeline.submit(any())).thenReturn(stuck);
+    when(pipeline.withdraw(stuck)).thenReturn(true);
+
+    ResponseStatusException ex = catchThrowableOfType(() -> checkout.initCheckout(request()),
+        ResponseStatusException.class);
+
+    assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+    verify(stock).release(any());
+  }
+
+  @Test
+  void pipelinedOrderAlreadyBeingWrittenIsWaitedFor() {
+    when(orderNumbers.next()).thenReturn("BK-1");
+    CompletableFuture<Order> writing = new CompletableFuture<>();
+    when(pipeline.enabled()).thenReturn(true);
+    when(pipeline.submit(any())).thenAnswer(invocation -> {
+      Order order = invocation.getArgument(0);
+      CompletableFuture.delayedExecutor(200, TimeUnit.MILLISECONDS)
+          .execute(() -> writing.complete(order));
+      return writing;
+    });
+    when(pipeline.withdraw(writing)).thenReturn(false);
+
+    assertThat(checkout.initCheckout(request()).orderNumber()).isEqualTo("BK-1");
+    verify(stock, never()).release(any());
+  }
+
+  static CheckoutRequest request() {
+    return new CheckoutRequest("Ana", "Pop", "ana@example.ro", "0700000000",
+        new AddressDto("Str. Lungă 1", null, "Brașov", "Brașov", "500001"), null, null,
+        List.of(new CheckoutItem(BASKET, 1)));
+  }
+}
@@ -0,0 +1,204 @@
+package ro.baskitup.application.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.server.ResponseStatusException;
+import ro.baskitup.adapters.persistence.PaidOrder;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogSnapshot;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockLedgerTest {
+  private static final UUID BASKET = UUID.randomUUID();
+  private static final int STOCK = 50;
+
+  private final CatalogIndex catalog = mock(CatalogIndex.class);
+  private final JdbcTemplate jdbc = mock(JdbcTemplate.class);
+  private StockLedger ledger;
+
+  @BeforeEach
+  void setUp() {
+    when(catalog.snapshot()).thenReturn(CatalogSnapshot.build(1, List.of(basket(BASKET, STOCK))));
+    doAnswer(invocation -> {
+      Supplier<Map<UUID, Integer>> write = invocation.getArgument(0);
+      catalog.stockChanged(write.get());
+      return null;
+    }).when(catalog).writeStock(any());
+    ledger = ledger(Duration.ofMinutes(30));
+  }
+
+  @AfterEach
+  void tearDown() {
+    ledger.shutdown();
+  }
+
+  @Test
+  void concurrentReservationsNeverOversell() throws Exception {
+    int threads = 16;
+    int attemptsPerThread = 50;
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> results = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int quantity = 1 + t % 3;
+      results.add(pool.submit(() -> {
+        start.await();
+        int reserved = 0;
+        for (int i = 0; i < attemptsPerThread; i++) {
+          try {
+            ledger.reserve(UUID.randomUUID(), Map.of(BASKET, quantity));
+            reserved += quantity;
+          } catch (ResponseStatusException ex) {
+            // Sold out for this quantity; keep racing with the others.
+          }
+        }
+        return reserved;
+      }));
+    }
+    start.countDown();
+    int reserved = 0;
+    for (Future<Integer> result : results) {
+      reserved += result.get(30, TimeUnit.SECONDS);
+    }
+    pool.shutdown();
+
+    int available = ledger.available(BASKET, -1);
+    assertThat(reserved).isLessThanOrEqualTo(STOCK);
+    assertThat(available).isGreaterThanOrEqualTo(0);
+    assertThat(reserved + available).isEqualTo(STOCK);
+  }
+
+  @Test
+  void failedReservationTakesNothing() {
+    UUID other = UUID.randomUUID();
+    when(catalog.snapshot()).thenReturn(
+        CatalogSnapshot.build(1, List.of(basket(BASKET, STOCK), basket(other, 1))));
+
+    // Ordered, so the first line is claimed before the second one fails.
+    Map<UUID, Integer> lines = new LinkedHashMap<>();
+    lines.put(BASKET, 5);
+    lines.put(other, 2);
+
+    assertThatThrownBy(() -> ledger.reserve(UUID.randomUUID(), lines))
+        .isInstanceOf(ResponseStatusException.class);
+
+    assertThat(ledger.available(BASKET, -1)).isEqualTo(STOCK);
+    assertThat(ledger.available(other, -1)).isEqualTo(1);
+  }
+
+  @Test
+  void nonPositiveQuantityIsRejected() {
+    ledger.reserve(UUID.randomUUID(), Map.of(BASKET, 1));
+
+    assertThatThrownBy(() -> ledger.reserve(UUID.randomUUID(), Map.of(BASKET, -5)))
+        .isInstanceOf(ResponseStatusException.class);
+    assertThatThrownBy(() -> ledger.reserve(UUID.randomUUID(), Map.of(BASKET, 0)))
+        .isInstanceOf(ResponseStatusException.class);
+
+    assertThat(ledger.available(BASKET, -1)).isEqualTo(STOCK - 1);
+  }
+
+  @Test
+  void releaseGivesUnitsBackOnce() {
+    UUID order = UUID.randomUUID();
+    ledger.reserve(order, Map.of(BASKET, 4));
+    assertThat(ledger.available(BASKET, -1)).isEqualTo(STOCK - 4);
+
+    ledger.release(order);
+    ledger.release(order);
+
+    assertThat(ledger.available(BASKET, -1)).isEqualTo(STOCK);
+  }
+
+  @Test
+  void expiredReservationsGiveUnitsBack() throws InterruptedException {
+    ledger.shutdown();
+    ledger = ledger(Duration.ZERO);
+    ledger.reserve(UUID.randomUUID(), Map.of(BASKET, 7));
+    assertThat(ledger.available(BASKET, -1)).isEqualTo(STOCK - 7);
+
+    Thread.sleep(5);
+    ledger.maintain();
+
+    assertThat(ledger.available(BASKET, -1)).isEqualTo(STOCK);
+    verify(jdbc, never()).batchUpdate(anyString(), anyList());
+  }
+
+  @Test
+  void purchaseKeepsUnitsSoldAndWritesThemOnce() {
+    UUID order = UUID.randomUUID();
+    ledger.reserve(order, Map.of(BASKET, 3));
+
+    ledger.purchased(new PaidOrder(order, Instant.now(), List.of(new PaidOrder.Line(BASKET, 3))));
+    ledger.release(order);
+    ledger.maintain();
+    ledger.maintain();
+
+    assertThat(ledger.available(BASKET, -1)).isEqualTo(STOCK - 3);
+    verify(jdbc).batchUpdate(anyString(), anyList());
+    verify(catalog).stockChanged(Map.of(BASKET, STOCK - 3));
+  }
+
+  @Test
+  void purchaseWithoutReservationStillSells() {
+    ledger.purchased(new PaidOrder(UUID.randomUUID(), Instant.now(), List.of(new PaidOrder.Line(BASKET, 2))));
+    ledger.maintain();
+
+    assertThat(ledger.available(BASKET, -1)).isEqualTo(STOCK - 2);
+    verify(catalog).stockChanged(Map.of(BASKET, STOCK - 2));
+  }
+
+  @Test
+  void failedWriteIsRetriedNextRound() {
+    UUID order = UUID.randomUUID();
+    ledger.reserve(order, Map.of(BASKET, 1));
+    ledger.purchased(new PaidOrder(order, Instant.now(), List.of(new PaidOrder.Line(BASKET, 1))));
+    when(jdbc.batchUpdate(anyString(), anyList()))
+        .thenThrow(new IllegalStateException("database down"))
+        .thenReturn(new int[] {1});
+
+    ledger.maintain();
+    verify(catalog, never()).stockChanged(Map.of(BASKET, STOCK - 1));
+    ledger.maintain();
+
+    verify(catalog).stockChanged(Map.of(BASKET, STOCK - 1));
+  }
+
+  private StockLedger ledger(Duration reservationTtl) {
+    return new StockLedger(catalog, jdbc, mock(PlatformTransactionManager.class), reservationTtl, Duration.ofHours(1));
+  }
+
+  private static BasketSummaryView basket(UUID id, int stock) {
+    return new BasketSummaryView(id, "cos-" + id, "Coș", "Crăciun", "", List.of(), new BigDecimal("199.00"),
+        stock, null, Instant.now(), Instant.now());
+  }
+}
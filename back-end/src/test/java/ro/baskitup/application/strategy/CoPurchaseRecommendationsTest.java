@@ -0,0 +1,96 @@
+package ro.baskitup.application.strategy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import ro.baskitup.adapters.persistence.PaidOrder;
+import ro.baskitup.application.catalog.CatalogIndex;
+import ro.baskitup.application.catalog.CatalogSnapshot;
+import ro.baskitup.application.services.PurchaseFeed;
+import ro.baskitup.domain.view.BasketSummaryView;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CoPurchaseRecommendationsTest {
+  private static final int BASKETS = 40;
+  private static final int ORDERS = 20_000;
+
+  @Test
+  void rebuildRanksByCoPurchaseCount() {
+    List<BasketSummaryView> baskets = new ArrayList<>();
+    for (int i = 0; i < BASKETS; i++) {
+      baskets.add(basket("cos-" + i));
+    }
+    CatalogIndex catalog = mock(CatalogIndex.class);
+    when(catalog.snapshot()).thenReturn(CatalogSnapshot.build(1, baskets));
+
+    List<PaidOrder> history = new ArrayList<>();
+    Random random = new Random(42);
+    for (int i = 0; i < ORDERS; i++) {
+      List<PaidOrder.Line> lines = new ArrayList<>();
+      int size = 1 + random.nextInt(5);
+      for (int j = 0; j < size; j++) {
+        // Skewed towards the first baskets, so the top lists have clear winners and long tails.
+        int pick = (int) (BASKETS * Math.pow(random.nextDouble(), 2));
+        lines.add(new PaidOrder.Line(baskets.get(pick).id(), 1));
+      }
+      history.add(new PaidOrder(UUID.randomUUID(), Instant.now(), lines));
+    }
+    PurchaseFeed feed = mock(PurchaseFeed.class);
+    doAnswer(invocation -> {
+      Consumer<PaidOrder> sink = invocation.getArgument(0);
+      history.forEach(sink);
+      return null;
+    }).when(feed).replay(any());
+
+    CoPurchaseRecommendations rebuilt = new CoPurchaseRecommendations(catalog, feed, true);
+    Object matrix = ReflectionTestUtils.invokeMethod(rebuilt, "rebuild");
+    ReflectionTestUtils.invokeMethod(rebuilt, "install", matrix);
+
+    Map<UUID, Map<UUID, Integer>> together = new HashMap<>();
+    for (PaidOrder order : history) {
+      Set<UUID> distinct = new LinkedHashSet<>();
+      order.lines().forEach(line -> distinct.add(line.basketId()));
+      for (UUID a : distinct) {
+        for (UUID b : distinct) {
+          if (!a.equals(b)) {
+            together.computeIfAbsent(a, id -> new HashMap<>()).merge(b, 1, Integer::sum);
+          }
+        }
+      }
+    }
+    for (BasketSummaryView basket : baskets) {
+      Map<UUID, Integer> counts = together.getOrDefault(basket.id(), Map.of());
+      // Ties may come in any order, so compare the counts of what was returned.
+      List<Integer> expected = counts.values().stream()
+          .sorted(Comparator.reverseOrder())
+          .limit(CoPurchaseRecommendations.MAX_RELATED)
+          .toList();
+      List<Integer> actual = rebuilt.related(basket.slug(), CoPurchaseRecommendations.MAX_RELATED).stream()
+          .map(related -> counts.get(related.id()))
+          .toList();
+      assertThat(actual).as(basket.slug()).isEqualTo(expected);
+    }
+  }
+
+  private static BasketSummaryView basket(String slug) {
+    return new BasketSummaryView(UUID.randomUUID(), slug, "Coș", "Crăciun", "", List.of(), new BigDecimal("199.00"),
+        10, null, Instant.now(), Instant.now());
+  }
+}
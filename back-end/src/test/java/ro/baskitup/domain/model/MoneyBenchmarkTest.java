@@ -0,0 +1,159 @@
+package ro.baskitup.domain.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Time and allocation per cart estimate for the {@link Money} arithmetic against the
+ * {@code BigDecimal} chain it replaced in {@code CartService}: line totals, subtotal, shipping, VAT
+ * rounded half-up and total, for a five-line cart. Both paths start from the catalog's
+ * {@code BigDecimal} prices. Allocation is read from the thread's allocated-bytes counter. Run with
+ * {@code mvn test -Dbenchmarks=true -Dtest=MoneyBenchmarkTest}.
+ *
+ * <p>Measured JMH-style without the dependency: every variant runs in fresh JVMs
+ * ({@value #FORKS} forks each, alternating which variant goes first), so neither profits from
+ * the JIT state or the garbage left by the other. Each fork warms up for {@value #WARMUP_ROUNDS}
+ * rounds and reports the median of {@value #MEASURED_ROUNDS} measured ones; the result is the
+ * median across forks.
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class MoneyBenchmarkTest {
+  private static final int FORKS = 3;
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 5;
+  private static final int OPS_PER_ROUND = 500_000;
+  private static final BigDecimal[] PRICES = {
+      new BigDecimal("149.90"), new BigDecimal("219.00"), new BigDecimal("89.50"),
+      new BigDecimal("349.99"), new BigDecimal("129.00")
+  };
+  private static final int[] QUANTITIES = {1, 2, 1, 3, 1};
+  private static final BigDecimal VAT_RATE = new BigDecimal("0.19");
+  private static final BigDecimal BIG_SHIPPING = new BigDecimal("25.00");
+  private static final Money SHIPPING = Money.ofMinor(2_500);
+
+  @Test
+  void moneyEstimateAllocatesLessThanBigDecimal() throws Exception {
+    assertThat(moneyTotal()).isEqualTo(bigDecimalTotal());
+
+    List<Result> bigDecimalForks = new ArrayList<>();
+    List<Result> moneyForks = new ArrayList<>();
+    for (int fork = 0; fork < FORKS; fork++) {
+      if (fork % 2 == 0) {
+        bigDecimalForks.add(fork(Variant.BIG_DECIMAL));
+        moneyForks.add(fork(Variant.MONEY));
+      } else {
+        moneyForks.add(fork(Variant.MONEY));
+        bigDecimalForks.add(fork(Variant.BIG_DECIMAL));
+      }
+    }
+    Result bigDecimal = median(bigDecimalForks);
+    Result money = median(moneyForks);
+
+    System.out.printf("Cart estimate, %d lines, median of %d forks: BigDecimal %.1f ns/op %.0f B/op, "
+            + "Money %.1f ns/op %.0f B/op%n", PRICES.length, FORKS,
+        bigDecimal.nanosPerOp(), bigDecimal.bytesPerOp(), money.nanosPerOp(), money.bytesPerOp());
+    assertThat(money.bytesPerOp()).isLessThan(bigDecimal.bytesPerOp());
+  }
+
+  /**
+   * Entry point of a fork: measures one variant and prints its result as the last line.
+   */
+  public static void main(String[] args) {
+    Variant variant = Variant.valueOf(args[0]);
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      round(variant.estimate);
+    }
+    List<Result> rounds = new ArrayList<>();
+    for (int round = 0; round < MEASURED_ROUNDS; round++) {
+      rounds.add(round(variant.estimate));
+    }
+    Result result = median(rounds);
+    System.out.println(result.nanosPerOp() + " " + result.bytesPerOp());
+  }
+
+  private static Result fork(Variant variant) throws IOException, InterruptedException {
+    Process process = new ProcessBuilder(
+        Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+        "-cp", System.getProperty("java.class.path"),
+        MoneyBenchmarkTest.class.getName(), variant.name())
+        .redirectErrorStream(true)
+        .start();
+    List<String> output;
+    try (BufferedReader reader = new BufferedReader(
+        new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+      output = reader.lines().toList();
+    }
+    assertThat(process.waitFor()).as("fork output: %s", output).isZero();
+    String[] last = output.get(output.size() - 1).split(" ");
+    return new Result(Double.parseDouble(last[0]), Double.parseDouble(last[1]));
+  }
+
+  private static long bigDecimalTotal() {
+    BigDecimal subtotal = BigDecimal.ZERO;
+    for (int i = 0; i < PRICES.length; i++) {
+      subtotal = subtotal.add(PRICES[i].multiply(BigDecimal.valueOf(QUANTITIES[i])));
+    }
+    BigDecimal vat = subtotal.add(BIG_SHIPPING).multiply(VAT_RATE).setScale(2, RoundingMode.HALF_UP);
+    BigDecimal total = subtotal.add(BIG_SHIPPING).add(vat).setScale(2, RoundingMode.HALF_UP);
+    return total.unscaledValue().longValueExact();
+  }
+
+  private static long moneyTotal() {
+    Money subtotal = Money.ZERO;
+    for (int i = 0; i < PRICES.length; i++) {
+      subtotal = subtotal.plus(Money.of(PRICES[i]).times(QUANTITIES[i]));
+    }
+    Money taxable = subtotal.plus(SHIPPING);
+    return taxable.plus(taxable.times(VAT_RATE, RoundingMode.HALF_UP)).minor();
+  }
+
+  private static Result round(LongSupplier estimate) {
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long thread = Thread.currentThread().threadId();
+    long sink = 0;
+    long bytesBefore = threads.getThreadAllocatedBytes(thread);
+    long started = System.nanoTime();
+    for (int i = 0; i < OPS_PER_ROUND; i++) {
+      sink += estimate.getAsLong();
+    }
+    long nanos = System.nanoTime() - started;
+    long bytes = threads.getThreadAllocatedBytes(thread) - bytesBefore;
+    if (sink <= 0) {
+      throw new IllegalStateException("Estimate was optimized away");
+    }
+    return new Result((double) nanos / OPS_PER_ROUND, (double) bytes / OPS_PER_ROUND);
+  }
+
+  private static Result median(List<Result> results) {
+    double[] nanos = results.stream().mapToDouble(Result::nanosPerOp).sorted().toArray();
+    double[] bytes = results.stream().mapToDouble(Result::bytesPerOp).sorted().toArray();
+    return new Result(nanos[nanos.length / 2], bytes[bytes.length / 2]);
+  }
+
+  private enum Variant {
+    BIG_DECIMAL(MoneyBenchmarkTest::bigDecimalTotal),
+    MONEY(MoneyBenchmarkTest::moneyTotal);
+
+    private final LongSupplier estimate;
+
+    Variant(LongSupplier estimate) {
+      this.estimate = estimate;
+    }
+  }
+
+  private record Result(double nanosPerOp, double bytesPerOp) {}
+}
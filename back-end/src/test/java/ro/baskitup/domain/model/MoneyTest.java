@@ -0,0 +1,56 @@
+package ro.baskitup.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+  private static final long[] AMOUNTS = {0, 1, 5, 15, 25, 49, 50, 51, 99, 150, 2_499, 14_990, 123_456_789};
+  private static final String[] RATES = {"0.19", "0.5", "0.05", "0.025", "1", "1.19", "0.333333333", "12"};
+
+  @Test
+  void timesRateRoundsLikeBigDecimal() {
+    for (long amount : AMOUNTS) {
+      for (long signed : new long[] {amount, -amount}) {
+        for (String rate : RATES) {
+          for (RoundingMode rounding : RoundingMode.values()) {
+            if (rounding != RoundingMode.UNNECESSARY) {
+              assertThat(Money.ofMinor(signed).times(new BigDecimal(rate), rounding).minor())
+                  .as("%d × %s %s", signed, rate, rounding)
+                  .isEqualTo(BigDecimal.valueOf(signed).multiply(new BigDecimal(rate)).setScale(0, rounding).longValueExact());
+            }
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  void timesRateFallsBackWhenTheProductOverflowsALong() {
+    Money large = Money.ofMinor(Long.MAX_VALUE / 10);
+
+    assertThat(large.times(new BigDecimal("0.19"), RoundingMode.HALF_UP).minor())
+        .isEqualTo(BigDecimal.valueOf(Long.MAX_VALUE / 10).multiply(new BigDecimal("0.19"))
+            .setScale(0, RoundingMode.HALF_UP).longValueExact());
+  }
+
+  @Test
+  void unnecessaryRoundingThrowsOnlyWhenRoundingIsNeeded() {
+    assertThat(Money.ofMinor(200).times(new BigDecimal("0.5"), RoundingMode.UNNECESSARY).minor()).isEqualTo(100);
+    assertThatThrownBy(() -> Money.ofMinor(15).times(new BigDecimal("0.5"), RoundingMode.UNNECESSARY))
+        .isInstanceOf(ArithmeticException.class);
+  }
+
+  @Test
+  void ofRoundsHalfUpToTheMinorUnit() {
+    assertThat(Money.of(new BigDecimal("149.90")).minor()).isEqualTo(14_990);
+    assertThat(Money.of(new BigDecimal("0.005")).minor()).isEqualTo(1);
+    assertThat(Money.of(new BigDecimal("-0.005")).minor()).isEqualTo(-1);
+    assertThat(Money.of(new BigDecimal("1E+3")).minor()).isEqualTo(100_000);
+    assertThat(Money.of(null)).isEqualTo(Money.ZERO);
+  }
+}
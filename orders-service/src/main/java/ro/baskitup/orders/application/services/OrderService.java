@@ -21,11 +21,13 @@ public class OrderService {
   private final OrderRepository repo;
   private final DomainEventBus bus;
   private final OrderMapper mapper;
+  private final OrderNumbers orderNumbers;
 
-  public OrderService(OrderRepository repo, DomainEventBus bus, OrderMapper mapper) {
+  public OrderService(OrderRepository repo, DomainEventBus bus, OrderMapper mapper, OrderNumbers orderNumbers) {
     this.repo = repo;
     this.bus = bus;
     this.mapper = mapper;
+    this.orderNumbers = orderNumbers;
   }
 
   public List<Order> list() {
@@ -37,9 +39,9 @@ public class OrderService {
   @Transactional
   public OrderView createSnapshot(OrderSnapshotRequest request) {
     Order order = new Order();
-    if (request.number() != null && !request.number().isBlank()) {
-      order.setOrderNumber(request.number());
-    }
+    order.setOrderNumber(request.number() != null && !request.number().isBlank()
+        ? request.number()
+        : orderNumbers.next());
     order.setGiftNote(request.note());
     order.setClientKey(request.userKey());
     order.setUserKey(request.userKey());